@@ -0,0 +1,224 @@
+package com.illyum.construction.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.illyum.construction.bean.NutricionFactsBean;
+import com.illyum.construction.builder.NutricionFacts;
+import com.illyum.construction.telescoping.NutricionFactsTelescopingConstructor;
+
+/**
+ * Cost of building a nutricion facts object with a telescoping constructor, a
+ * JavaBean and a Builder.
+ *
+ * <ul>
+ * <li>single: one object per call, returned so it escapes</li>
+ * <li>loop: objects built and read inside a hot loop without escaping, so
+ * escape analysis may scalar replace them and the builder; the NoEA variants
+ * run the same loops with -XX:-DoEscapeAnalysis, the difference of their
+ * gc.alloc.rate.norm shows what escape analysis removed</li>
+ * <li>publication: one thread builds objects and publishes them through a
+ * shared field while another thread reads them</li>
+ * </ul>
+ *
+ * <pre>
+ * mvn install -f ../construction
+ * mvn package
+ * java -jar target/benchmarks.jar NutricionFactsConstructionBenchmark -prof gc
+ * java -cp target/benchmarks.jar com.illyum.construction.benchmark.NutricionFactsConstructionBenchmark
+ * </pre>
+ *
+ * The main method runs the suite with the gc profiler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class NutricionFactsConstructionBenchmark {
+	private static final int LOOP = 1024;
+
+	private int _servingSize;
+	private int _servings;
+	private int _calories;
+	private int _sodium;
+
+	@Setup
+	public void setUp() {
+		// fields instead of constants, so the values are not folded
+		_servingSize = 240;
+		_servings = 8;
+		_calories = 100;
+		_sodium = 35;
+	}
+
+	// ------------- single construction -----------------
+
+	@Benchmark
+	public NutricionFactsTelescopingConstructor telescoping() {
+		return new NutricionFactsTelescopingConstructor(_servingSize, _servings, _calories, 0, _sodium, 0);
+	}
+
+	@Benchmark
+	public NutricionFactsBean bean() {
+		NutricionFactsBean nutricionFacts = new NutricionFactsBean();
+		nutricionFacts.setServingSize(_servingSize);
+		nutricionFacts.setServings(_servings);
+		nutricionFacts.setCalories(_calories);
+		nutricionFacts.setSodium(_sodium);
+		return nutricionFacts;
+	}
+
+	@Benchmark
+	public NutricionFacts builder() {
+		return new NutricionFacts.Builder(_servingSize, _servings).calories(_calories).sodium(_sodium).build();
+	}
+
+	@Benchmark
+	public NutricionFacts localBuilder() {
+		return NutricionFacts.Builder.local(_servingSize, _servings).calories(_calories).sodium(_sodium).build();
+	}
+
+	// ------------- hot loops, objects do not escape -----------------
+
+	@Benchmark
+	@OperationsPerInvocation(LOOP)
+	public long telescopingLoop() {
+		long sum = 0;
+		for (int i = 0; i < LOOP; i++) {
+			sum += new NutricionFactsTelescopingConstructor(_servingSize, _servings, i, 0, _sodium, 0).getCalories();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOOP)
+	public long beanLoop() {
+		long sum = 0;
+		for (int i = 0; i < LOOP; i++) {
+			NutricionFactsBean nutricionFacts = new NutricionFactsBean();
+			nutricionFacts.setServingSize(_servingSize);
+			nutricionFacts.setServings(_servings);
+			nutricionFacts.setCalories(i);
+			nutricionFacts.setSodium(_sodium);
+			sum += nutricionFacts.getCalories();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOOP)
+	public long builderLoop() {
+		long sum = 0;
+		for (int i = 0; i < LOOP; i++) {
+			sum += new NutricionFacts.Builder(_servingSize, _servings).calories(i).sodium(_sodium).build().getCalories();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOOP)
+	@Fork(value = 2, jvmArgsAppend = "-XX:-DoEscapeAnalysis")
+	public long telescopingLoopNoEA() {
+		return telescopingLoop();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOOP)
+	@Fork(value = 2, jvmArgsAppend = "-XX:-DoEscapeAnalysis")
+	public long beanLoopNoEA() {
+		return beanLoop();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOOP)
+	@Fork(value = 2, jvmArgsAppend = "-XX:-DoEscapeAnalysis")
+	public long builderLoopNoEA() {
+		return builderLoop();
+	}
+
+	// ------------- publication to another thread -----------------
+
+	@State(Scope.Group)
+	public static class Shared {
+		NutricionFactsTelescopingConstructor _telescoping = new NutricionFactsTelescopingConstructor(1, 1);
+		NutricionFactsBean _bean = new NutricionFactsBean();
+		NutricionFacts _builder = new NutricionFacts.Builder(1, 1).build();
+		int _next;
+	}
+
+	@Benchmark
+	@Group("telescopingPublication")
+	public void telescopingPublish(Shared shared) {
+		// the fields are final, so readers never see a partially built object
+		shared._telescoping = new NutricionFactsTelescopingConstructor(shared._next++, _servings, _calories, 0, _sodium, 0);
+	}
+
+	@Benchmark
+	@Group("telescopingPublication")
+	public void telescopingRead(Shared shared, Blackhole blackhole) {
+		NutricionFactsTelescopingConstructor nutricionFacts = shared._telescoping;
+		blackhole.consume(nutricionFacts.getServingSize());
+		blackhole.consume(nutricionFacts.getCalories());
+	}
+
+	@Benchmark
+	@Group("beanPublication")
+	public void beanPublish(Shared shared) {
+		// a racy publication, readers may see default values
+		NutricionFactsBean nutricionFacts = new NutricionFactsBean();
+		nutricionFacts.setServingSize(shared._next++);
+		nutricionFacts.setServings(_servings);
+		nutricionFacts.setCalories(_calories);
+		nutricionFacts.setSodium(_sodium);
+		shared._bean = nutricionFacts;
+	}
+
+	@Benchmark
+	@Group("beanPublication")
+	public void beanRead(Shared shared, Blackhole blackhole) {
+		NutricionFactsBean nutricionFacts = shared._bean;
+		blackhole.consume(nutricionFacts.getServingSize());
+		blackhole.consume(nutricionFacts.getCalories());
+	}
+
+	@Benchmark
+	@Group("builderPublication")
+	public void builderPublish(Shared shared) {
+		// the fields are final, so readers never see a partially built object
+		shared._builder = new NutricionFacts.Builder(shared._next++, _servings).calories(_calories).sodium(_sodium).build();
+	}
+
+	@Benchmark
+	@Group("builderPublication")
+	public void builderRead(Shared shared, Blackhole blackhole) {
+		NutricionFacts nutricionFacts = shared._builder;
+		blackhole.consume(nutricionFacts.getServingSize());
+		blackhole.consume(nutricionFacts.getCalories());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(NutricionFactsConstructionBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
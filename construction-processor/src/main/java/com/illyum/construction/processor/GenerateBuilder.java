@@ -0,0 +1,28 @@
+package com.illyum.construction.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates an immutable implementation of the annotated interface or
+ * abstract class with a builder shaped like NutricionFacts.Builder: the
+ * required properties are the arguments of the builder's constructor, the
+ * optional ones get a fluent setter, and the immutable class has a private
+ * constructor taking the builder.
+ *
+ * The properties are the abstract methods without parameters of the
+ * annotated type, getServingSize() and servingSize() both declare the
+ * servingSize property. The code is generated at compile time, so no
+ * reflection is involved at runtime
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateBuilder {
+	/**
+	 * @return the simple name of the generated class, Immutable followed by the
+	 *         name of the annotated type by default
+	 */
+	String name() default "";
+}
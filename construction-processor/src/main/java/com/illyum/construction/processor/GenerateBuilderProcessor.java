@@ -0,0 +1,260 @@
+package com.illyum.construction.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Writes the immutable class and the builder of every type annotated with
+ * GenerateBuilder
+ */
+public class GenerateBuilderProcessor extends AbstractProcessor {
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton(GenerateBuilder.class.getCanonicalName());
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (Element element : roundEnv.getElementsAnnotatedWith(GenerateBuilder.class)) {
+			TypeElement type = (TypeElement) element;
+			if (isValid(type)) {
+				generate(type);
+			}
+		}
+
+		return true;
+	}
+
+	private boolean isValid(TypeElement type) {
+		boolean isInterface = type.getKind() == ElementKind.INTERFACE;
+		boolean isAbstractClass = type.getKind() == ElementKind.CLASS
+				&& type.getModifiers().contains(Modifier.ABSTRACT);
+
+		if (!isInterface && !isAbstractClass) {
+			return error(type, "@GenerateBuilder needs an interface or an abstract class");
+		}
+
+		if (!type.getTypeParameters().isEmpty()) {
+			return error(type, "@GenerateBuilder does not support generic types");
+		}
+
+		if (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC) && !isInterface) {
+			return error(type, "@GenerateBuilder needs a top level or a static nested class");
+		}
+
+		if (isAbstractClass && !hasAccessibleNoArgConstructor(type)) {
+			return error(type, "@GenerateBuilder needs a constructor without parameters");
+		}
+
+		boolean valid = true;
+		Set<String> propertyNames = new HashSet<String>();
+		for (ExecutableElement method : abstractMethods(type)) {
+			if (!method.getParameters().isEmpty() || method.getReturnType().getKind() == TypeKind.VOID) {
+				valid = error(method, "Properties must return a value and take no parameters");
+				continue;
+			}
+
+			String name = propertyName(method);
+			if (name.equals("build")) {
+				valid = error(method, "build is reserved for the builder");
+			} else if (SourceVersion.isKeyword(name)) {
+				valid = error(method, "Property " + name + " is a Java keyword");
+			} else if (!propertyNames.add(name)) {
+				valid = error(method, "Property " + name + " is declared by another method");
+			}
+		}
+
+		return valid;
+	}
+
+	private boolean hasAccessibleNoArgConstructor(TypeElement type) {
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private List<ExecutableElement> abstractMethods(TypeElement type) {
+		List<ExecutableElement> methods = new ArrayList<ExecutableElement>();
+
+		for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+			if (method.getModifiers().contains(Modifier.ABSTRACT)) {
+				methods.add(method);
+			}
+		}
+
+		return methods;
+	}
+
+	private void generate(TypeElement type) {
+		String packageName = packageOf(type).getQualifiedName().toString();
+		String className = type.getAnnotation(GenerateBuilder.class).name();
+		if (className.isEmpty()) {
+			className = "Immutable" + type.getSimpleName();
+		}
+
+		List<ExecutableElement> required = new ArrayList<ExecutableElement>();
+		List<ExecutableElement> optional = new ArrayList<ExecutableElement>();
+		for (ExecutableElement method : abstractMethods(type)) {
+			if (method.getAnnotation(Required.class) != null) {
+				required.add(method);
+			} else {
+				optional.add(method);
+			}
+		}
+
+		List<ExecutableElement> all = new ArrayList<ExecutableElement>(required);
+		all.addAll(optional);
+
+		String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+		try {
+			JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+			try (PrintWriter out = new PrintWriter(file.openWriter())) {
+				write(out, type, packageName, className, required, optional, all);
+			}
+		} catch (IOException e) {
+			error(type, "Cannot write " + qualifiedName + ": " + e.getMessage());
+		}
+	}
+
+	private void write(
+			PrintWriter out,
+			TypeElement type,
+			String packageName,
+			String className,
+			List<ExecutableElement> required,
+			List<ExecutableElement> optional,
+			List<ExecutableElement> all
+	) {
+		String supertype = type.getQualifiedName().toString();
+		boolean isInterface = type.getKind() == ElementKind.INTERFACE;
+
+		if (!packageName.isEmpty()) {
+			out.println("package " + packageName + ";");
+			out.println();
+		}
+
+		out.println("/**");
+		out.println(" * Generated by GenerateBuilderProcessor from " + supertype + ", do not edit");
+		out.println(" */");
+		out.println("public final class " + className + (isInterface ? " implements " : " extends ") + supertype + " {");
+		for (ExecutableElement method : all) {
+			out.println("\tprivate final " + method.getReturnType() + " _" + propertyName(method) + ";");
+		}
+		out.println();
+
+		// builder
+		out.println("\tpublic static class Builder {");
+		out.println("\t\t// required parameters");
+		for (ExecutableElement method : required) {
+			out.println("\t\tprivate " + method.getReturnType() + " _" + propertyName(method) + ";");
+		}
+		out.println();
+		out.println("\t\t// optional parameters - initialized to default values");
+		for (ExecutableElement method : optional) {
+			out.println("\t\tprivate " + method.getReturnType() + " _" + propertyName(method) + ";");
+		}
+		out.println();
+
+		StringBuilder parameters = new StringBuilder();
+		for (ExecutableElement method : required) {
+			if (parameters.length() > 0) {
+				parameters.append(", ");
+			}
+			parameters.append(method.getReturnType()).append(' ').append(propertyName(method));
+		}
+		out.println("\t\tpublic Builder(" + parameters + ") {");
+		for (ExecutableElement method : required) {
+			out.println("\t\t\t_" + propertyName(method) + " = " + propertyName(method) + ";");
+		}
+		out.println("\t\t}");
+
+		for (ExecutableElement method : optional) {
+			out.println();
+			out.println("\t\tpublic Builder " + propertyName(method) + "(" + method.getReturnType() + " val) {");
+			out.println("\t\t\t_" + propertyName(method) + " = val;");
+			out.println("\t\t\treturn this;");
+			out.println("\t\t}");
+		}
+
+		out.println();
+		out.println("\t\tpublic " + className + " build() {");
+		out.println("\t\t\treturn new " + className + "(this);");
+		out.println("\t\t}");
+		out.println("\t}");
+		out.println();
+
+		// constructor taking the builder
+		out.println("\tprivate " + className + "(Builder builder) {");
+		for (ExecutableElement method : all) {
+			out.println("\t\t_" + propertyName(method) + " = builder._" + propertyName(method) + ";");
+		}
+		out.println("\t}");
+
+		// accessors
+		for (ExecutableElement method : all) {
+			out.println();
+			out.println("\t@Override");
+			out.println("\tpublic " + method.getReturnType() + " " + method.getSimpleName() + "() {");
+			out.println("\t\treturn _" + propertyName(method) + ";");
+			out.println("\t}");
+		}
+
+		out.println("}");
+	}
+
+	private static String propertyName(ExecutableElement method) {
+		String name = method.getSimpleName().toString();
+
+		String property = name;
+		if (name.length() > 3 && name.startsWith("get") && Character.isUpperCase(name.charAt(3))) {
+			property = name.substring(3);
+		} else if (name.length() > 2 && name.startsWith("is") && Character.isUpperCase(name.charAt(2))
+				&& method.getReturnType().getKind() == TypeKind.BOOLEAN) {
+			property = name.substring(2);
+		}
+
+		return Character.toLowerCase(property.charAt(0)) + property.substring(1);
+	}
+
+	private static PackageElement packageOf(Element element) {
+		while (!(element instanceof PackageElement)) {
+			element = element.getEnclosingElement();
+		}
+
+		return (PackageElement) element;
+	}
+
+	private boolean error(Element element, String message) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+		return false;
+	}
+}
@@ -0,0 +1,16 @@
+package com.illyum.construction.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a property as a required parameter of the generated builder, the
+ * other properties are optional and keep the default value of their type
+ * unless they are set
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface Required {
+}
@@ -0,0 +1,142 @@
+package com.illyum.construction.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * ImmutableNutricionFactsSpec is written by the processor while the tests are
+ * compiled
+ */
+public class GenerateBuilderProcessorTest {
+	@Rule
+	public TemporaryFolder _output = new TemporaryFolder();
+
+	@Test
+	public void requiredParametersAreTakenByTheBuilderConstructor() {
+		// act
+		NutricionFactsSpec nutricionFacts = new ImmutableNutricionFactsSpec.Builder(240, 8).build();
+
+		// assert
+		assertEquals(240, nutricionFacts.getServingSize());
+		assertEquals(8, nutricionFacts.getServings());
+	}
+
+	@Test
+	public void optionalParametersAreInitializedToDefaultValues() {
+		// act
+		NutricionFactsSpec nutricionFacts = new ImmutableNutricionFactsSpec.Builder(240, 8).build();
+
+		// assert
+		assertEquals(0, nutricionFacts.getCalories());
+		assertNull(nutricionFacts.label());
+		assertFalse(nutricionFacts.isOrganic());
+	}
+
+	@Test
+	public void optionalParametersAreSetFluently() {
+		// act
+		NutricionFactsSpec nutricionFacts = new ImmutableNutricionFactsSpec
+				.Builder(240, 8)
+				.calories(100)
+				.sodium(35)
+				.carbohydrate(27)
+				.label("cocaCola")
+				.organic(true)
+				.build();
+
+		// assert
+		assertEquals(100, nutricionFacts.getCalories());
+		assertEquals(0, nutricionFacts.getFat());
+		assertEquals(35, nutricionFacts.getSodium());
+		assertEquals(27, nutricionFacts.getCarbohydrate());
+		assertEquals("cocaCola", nutricionFacts.label());
+		assertTrue(nutricionFacts.isOrganic());
+	}
+
+	@Test
+	public void propertiesWithTheSameNameAreRejected() {
+		// act
+		List<String> errors = compile("Spec",
+				"@com.illyum.construction.processor.GenerateBuilder",
+				"public interface Spec {",
+				"	int getSize();",
+				"	int size();",
+				"}");
+
+		// assert
+		assertEquals(Arrays.asList("Property size is declared by another method"), errors);
+	}
+
+	@Test
+	public void propertiesNamedAfterAKeywordAreRejected() {
+		// act
+		List<String> errors = compile("Spec",
+				"@com.illyum.construction.processor.GenerateBuilder",
+				"public interface Spec {",
+				"	long getDefault();",
+				"}");
+
+		// assert
+		assertEquals(Arrays.asList("Property default is a Java keyword"), errors);
+	}
+
+	private List<String> compile(String className, String... lines) {
+		final String source = join(lines);
+		JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///" + className + ".java"), JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+				return source;
+			}
+		};
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+		String output = _output.getRoot().getPath();
+		JavaCompiler.CompilationTask task = compiler.getTask(
+				null,
+				null,
+				diagnostics,
+				Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d", output, "-s", output),
+				null,
+				Collections.singletonList(file));
+		task.setProcessors(Collections.singletonList(new GenerateBuilderProcessor()));
+		task.call();
+
+		List<String> errors = new ArrayList<String>();
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+				errors.add(diagnostic.getMessage(null));
+			}
+		}
+
+		return errors;
+	}
+
+	private static String join(String... lines) {
+		StringBuilder source = new StringBuilder();
+		for (String line : lines) {
+			source.append(line).append('\n');
+		}
+
+		return source.toString();
+	}
+}
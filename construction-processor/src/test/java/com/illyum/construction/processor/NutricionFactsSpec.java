@@ -0,0 +1,22 @@
+package com.illyum.construction.processor;
+
+@GenerateBuilder
+public interface NutricionFactsSpec {
+	@Required
+	int getServingSize();
+
+	@Required
+	int getServings();
+
+	int getCalories();
+
+	int getFat();
+
+	int getSodium();
+
+	int getCarbohydrate();
+
+	String label();
+
+	boolean isOrganic();
+}
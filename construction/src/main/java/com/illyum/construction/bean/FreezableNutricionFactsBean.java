@@ -0,0 +1,178 @@
+package com.illyum.construction.bean;
+
+import com.illyum.construction.builder.NutricionFacts;
+
+/**
+ * A NutricionFactsBean that becomes immutable once frozen, the fix suggested
+ * by Bloch for the inconsistent state of JavaBeans.
+ *
+ * Setters and freeze() hold the lock of the bean, so a setter either completes
+ * before freeze() or throws IllegalStateException. freeze() is a volatile
+ * write made after every setter and every getter starts with a volatile read
+ * of the same flag: a getter that sees the bean frozen reads without locking
+ * and sees all the values set before freeze(), so frozen beans may be shared
+ * through plain fields. Getters of a bean not frozen yet read under the lock
+ */
+public class FreezableNutricionFactsBean extends NutricionFactsBean {
+	private volatile boolean _frozen;
+
+	public FreezableNutricionFactsBean() {
+	}
+
+	/**
+	 * Makes the bean immutable, calling it again has no effect
+	 */
+	public synchronized FreezableNutricionFactsBean freeze() {
+		_frozen = true;
+		return this;
+	}
+
+	public boolean isFrozen() {
+		return _frozen;
+	}
+
+	private void checkNotFrozen() {
+		if (_frozen) {
+			throw new IllegalStateException("The nutricion facts are frozen");
+		}
+	}
+
+	/**
+	 * @return a NutricionFacts with the same values
+	 */
+	public NutricionFacts toNutricionFacts() {
+		return new NutricionFacts
+				.Builder(getServingSize(), getServings())
+				.calories(getCalories())
+				.fat(getFat())
+				.sodium(getSodium())
+				.carbohydrate(getCarbohydrate())
+				.build();
+	}
+
+	/**
+	 * Converts the given beans with a single builder, null beans give null
+	 * objects
+	 */
+	public static NutricionFacts[] toNutricionFacts(NutricionFactsBean[] beans) {
+		NutricionFacts[] result = new NutricionFacts[beans.length];
+		NutricionFacts.Builder builder = new NutricionFacts.Builder(0, 0);
+
+		for (int i = 0; i < beans.length; i++) {
+			NutricionFactsBean bean = beans[i];
+			if (bean != null) {
+				result[i] = builder
+						.reset(bean.getServingSize(), bean.getServings())
+						.calories(bean.getCalories())
+						.fat(bean.getFat())
+						.sodium(bean.getSodium())
+						.carbohydrate(bean.getCarbohydrate())
+						.build();
+			}
+		}
+
+		return result;
+	}
+
+	@Override
+	public int getServingSize() {
+		if (_frozen) {
+			return super.getServingSize();
+		}
+
+		synchronized (this) {
+			return super.getServingSize();
+		}
+	}
+
+	@Override
+	public synchronized void setServingSize(int servingSize) {
+		checkNotFrozen();
+		super.setServingSize(servingSize);
+	}
+
+	@Override
+	public int getServings() {
+		if (_frozen) {
+			return super.getServings();
+		}
+
+		synchronized (this) {
+			return super.getServings();
+		}
+	}
+
+	@Override
+	public synchronized void setServings(int servings) {
+		checkNotFrozen();
+		super.setServings(servings);
+	}
+
+	@Override
+	public int getCalories() {
+		if (_frozen) {
+			return super.getCalories();
+		}
+
+		synchronized (this) {
+			return super.getCalories();
+		}
+	}
+
+	@Override
+	public synchronized void setCalories(int calories) {
+		checkNotFrozen();
+		super.setCalories(calories);
+	}
+
+	@Override
+	public int getFat() {
+		if (_frozen) {
+			return super.getFat();
+		}
+
+		synchronized (this) {
+			return super.getFat();
+		}
+	}
+
+	@Override
+	public synchronized void setFat(int fat) {
+		checkNotFrozen();
+		super.setFat(fat);
+	}
+
+	@Override
+	public int getSodium() {
+		if (_frozen) {
+			return super.getSodium();
+		}
+
+		synchronized (this) {
+			return super.getSodium();
+		}
+	}
+
+	@Override
+	public synchronized void setSodium(int sodium) {
+		checkNotFrozen();
+		super.setSodium(sodium);
+	}
+
+	@Override
+	public int getCarbohydrate() {
+		if (_frozen) {
+			return super.getCarbohydrate();
+		}
+
+		synchronized (this) {
+			return super.getCarbohydrate();
+		}
+	}
+
+	@Override
+	public synchronized void setCarbohydrate(int carbohydrate) {
+		checkNotFrozen();
+		super.setCarbohydrate(carbohydrate);
+	}
+}
@@ -9,6 +9,13 @@ public class NutricionFacts {
 	private final int _carbohydrate;
 
 	public static class Builder {
+		private static final ThreadLocal<Builder> LOCAL = new ThreadLocal<Builder>() {
+			@Override
+			protected Builder initialValue() {
+				return new Builder(0, 0);
+			}
+		};
+
 		// required parameters
 		private int _servingSize;
 		private int _servings;
@@ -18,12 +25,38 @@ public class NutricionFacts {
 		private int _fat;
 		private int _sodium;
 		private int _carbohydrate;
+		private NutricionFactsInterner _interner;
 
 		public Builder(int servingSize, int servings) {
 			_servingSize = servingSize;
 			_servings = servings;
 		}
 
+		/**
+		 * The builder of the calling thread, reset with the given required
+		 * parameters. It saves a builder allocation per object in construction
+		 * loops, but it must not be kept nor shared with other threads
+		 */
+		public static Builder local(int servingSize, int servings) {
+			Builder builder = LOCAL.get().reset(servingSize, servings);
+			builder._interner = null;
+			return builder;
+		}
+
+		/**
+		 * Prepares the builder for a new object, the optional parameters go back
+		 * to their default values. The interner, if any, is kept
+		 */
+		public Builder reset(int servingSize, int servings) {
+			_servingSize = servingSize;
+			_servings = servings;
+			_calories = 0;
+			_fat = 0;
+			_sodium = 0;
+			_carbohydrate = 0;
+			return this;
+		}
+
 		public Builder calories(int val) {
 			_calories = val;
 			return this;
@@ -44,11 +77,65 @@ public class NutricionFacts {
 			return this;
 		}
 
+		/**
+		 * Built objects equal to an already interned one are replaced by it
+		 */
+		public Builder intern(NutricionFactsInterner interner) {
+			_interner = interner;
+			return this;
+		}
+
 		public NutricionFacts build() {
-			return new NutricionFacts(this);
+			NutricionFacts nutricionFacts = new NutricionFacts(this);
+			return _interner == null ? nutricionFacts : _interner.intern(nutricionFacts);
 		}
 	}
 
+	/**
+	 * Builds an object per row of the given columns, the optional columns may
+	 * be null
+	 */
+	public static NutricionFacts[] buildAll(
+			int[] servingSize,
+			int[] servings,
+			int[] calories,
+			int[] fat,
+			int[] sodium,
+			int[] carbohydrate
+	) {
+		int rows = servingSize.length;
+		if (servings.length != rows
+				|| (calories != null && calories.length != rows)
+				|| (fat != null && fat.length != rows)
+				|| (sodium != null && sodium.length != rows)
+				|| (carbohydrate != null && carbohydrate.length != rows)) {
+			throw new IllegalArgumentException("Every column must have the same length");
+		}
+
+		NutricionFacts[] result = new NutricionFacts[rows];
+		Builder builder = new Builder(0, 0);
+
+		for (int row = 0; row < rows; row++) {
+			builder.reset(servingSize[row], servings[row]);
+			if (calories != null) {
+				builder._calories = calories[row];
+			}
+			if (fat != null) {
+				builder._fat = fat[row];
+			}
+			if (sodium != null) {
+				builder._sodium = sodium[row];
+			}
+			if (carbohydrate != null) {
+				builder._carbohydrate = carbohydrate[row];
+			}
+
+			result[row] = builder.build();
+		}
+
+		return result;
+	}
+
 	private NutricionFacts(Builder builder) {
 		_servingSize = builder._servingSize;
 		_servings = builder._servings;
@@ -81,4 +168,35 @@ public class NutricionFacts {
 	public int getCarbohydrate() {
 		return _carbohydrate;
 	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (!(o instanceof NutricionFacts)) {
+			return false;
+		}
+
+		NutricionFacts other = (NutricionFacts) o;
+		return _servingSize == other._servingSize
+				&& _servings == other._servings
+				&& _calories == other._calories
+				&& _fat == other._fat
+				&& _sodium == other._sodium
+				&& _carbohydrate == other._carbohydrate;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = 17;
+		result = 31 * result + _servingSize;
+		result = 31 * result + _servings;
+		result = 31 * result + _calories;
+		result = 31 * result + _fat;
+		result = 31 * result + _sodium;
+		result = 31 * result + _carbohydrate;
+		return result;
+	}
 }
@@ -0,0 +1,160 @@
+package com.illyum.construction.builder;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shares a single instance among equal NutricionFacts, which is safe because
+ * they are immutable. Catalogs where many products have the same panel keep
+ * one object per distinct panel instead of one per product.
+ *
+ * The interner is thread-safe and counts its requests, so the ratio of
+ * duplicates and the memory saved can be reported
+ */
+public abstract class NutricionFactsInterner {
+	/**
+	 * Estimated size of a NutricionFacts with compressed references: a 12 bytes
+	 * header plus six ints, aligned to 8 bytes
+	 */
+	public static final int INSTANCE_BYTES = 40;
+
+	private final AtomicLong _requests = new AtomicLong();
+	private final AtomicLong _hits = new AtomicLong();
+
+	/**
+	 * Keeps the interned objects while there are less than maxSize of them,
+	 * afterwards new panels are returned without being interned. Lookups do not
+	 * lock
+	 */
+	public static NutricionFactsInterner bounded(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("The interner must keep an object at least");
+		}
+
+		return new Bounded(maxSize);
+	}
+
+	/**
+	 * Keeps the interned objects while they are referenced elsewhere, so the
+	 * interner never grows beyond the live panels. Lookups lock the interner
+	 */
+	public static NutricionFactsInterner weak() {
+		return new Weak();
+	}
+
+	/**
+	 * @return the interned object equal to the given one, the given one if it is
+	 *         the first of its kind
+	 */
+	public NutricionFacts intern(NutricionFacts nutricionFacts) {
+		NutricionFacts interned = lookup(nutricionFacts);
+
+		_requests.incrementAndGet();
+		if (interned != nutricionFacts) {
+			_hits.incrementAndGet();
+		}
+
+		return interned;
+	}
+
+	abstract NutricionFacts lookup(NutricionFacts nutricionFacts);
+
+	/**
+	 * @return the number of interned objects
+	 */
+	public abstract int size();
+
+	public long getRequests() {
+		return _requests.get();
+	}
+
+	/**
+	 * @return the number of requests answered with an already interned object
+	 */
+	public long getHits() {
+		return _hits.get();
+	}
+
+	/**
+	 * @return the fraction of the requests that were duplicates
+	 */
+	public double getDedupRatio() {
+		long requests = _requests.get();
+		return requests == 0 ? 0 : (double) _hits.get() / requests;
+	}
+
+	/**
+	 * @return the estimated bytes of the duplicates that could be collected
+	 */
+	public long getMemorySaved() {
+		return _hits.get() * INSTANCE_BYTES;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"%d interned, %d requests, %.1f%% duplicates, ~%d bytes saved",
+				size(),
+				getRequests(),
+				getDedupRatio() * 100,
+				getMemorySaved()
+		);
+	}
+
+	private static class Bounded extends NutricionFactsInterner {
+		private final ConcurrentMap<NutricionFacts, NutricionFacts> _interned;
+		private final int _maxSize;
+
+		Bounded(int maxSize) {
+			_maxSize = maxSize;
+			_interned = new ConcurrentHashMap<NutricionFacts, NutricionFacts>();
+		}
+
+		@Override
+		NutricionFacts lookup(NutricionFacts nutricionFacts) {
+			NutricionFacts interned = _interned.get(nutricionFacts);
+			if (interned != null) {
+				return interned;
+			}
+
+			// the bound may be exceeded by a few concurrent inserts
+			if (_interned.size() >= _maxSize) {
+				return nutricionFacts;
+			}
+
+			interned = _interned.putIfAbsent(nutricionFacts, nutricionFacts);
+			return interned == null ? nutricionFacts : interned;
+		}
+
+		@Override
+		public int size() {
+			return _interned.size();
+		}
+	}
+
+	private static class Weak extends NutricionFactsInterner {
+		private final Map<NutricionFacts, WeakReference<NutricionFacts>> _interned =
+				new WeakHashMap<NutricionFacts, WeakReference<NutricionFacts>>();
+
+		@Override
+		synchronized NutricionFacts lookup(NutricionFacts nutricionFacts) {
+			WeakReference<NutricionFacts> reference = _interned.get(nutricionFacts);
+			NutricionFacts interned = reference == null ? null : reference.get();
+			if (interned != null) {
+				return interned;
+			}
+
+			_interned.put(nutricionFacts, new WeakReference<NutricionFacts>(nutricionFacts));
+			return nutricionFacts;
+		}
+
+		@Override
+		public synchronized int size() {
+			return _interned.size();
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package com.illyum.construction.catalog;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.illyum.construction.builder.NutricionFacts;
+import com.illyum.construction.table.Column;
+
+/**
+ * An in-memory catalog of NutricionFacts queried with NutricionQuery, for
+ * instance calories at most 199 and sodium at most 139.
+ *
+ * The columns given at construction are indexed by a SortedIndex, kept up to
+ * date by every insert. Ranges of the other columns are found by scanning the
+ * rows, in parallel on the common ForkJoinPool once the catalog is large.
+ *
+ * Rows are numbered in insertion order. The catalog is thread-safe: queries
+ * run concurrently, inserts wait for them
+ */
+public class NutricionCatalog {
+	static final int PARALLEL_SCAN_THRESHOLD = 64 * 1024;
+
+	// a multiple of 64, so every task sets its own words of the bitmap
+	private static final int SCAN_TASK_ROWS = 16 * 1024;
+
+	private final List<NutricionFacts> _rows = new ArrayList<NutricionFacts>();
+	private final Map<Column, SortedIndex> _indexes = new EnumMap<Column, SortedIndex>(Column.class);
+	private final ReadWriteLock _lock = new ReentrantReadWriteLock();
+
+	public NutricionCatalog(Column... indexed) {
+		for (Column column : indexed) {
+			_indexes.put(column, new SortedIndex());
+		}
+	}
+
+	/**
+	 * @return the row of the added object
+	 */
+	public int add(NutricionFacts nutricionFacts) {
+		_lock.writeLock().lock();
+		try {
+			return insert(nutricionFacts);
+		} finally {
+			_lock.writeLock().unlock();
+		}
+	}
+
+	public void addAll(Collection<NutricionFacts> nutricionFacts) {
+		_lock.writeLock().lock();
+		try {
+			for (NutricionFacts each : nutricionFacts) {
+				insert(each);
+			}
+			for (SortedIndex index : _indexes.values()) {
+				index.merge();
+			}
+		} finally {
+			_lock.writeLock().unlock();
+		}
+	}
+
+	private int insert(NutricionFacts nutricionFacts) {
+		if (nutricionFacts == null) {
+			throw new IllegalArgumentException("The catalog does not hold null rows");
+		}
+
+		int row = _rows.size();
+		_rows.add(nutricionFacts);
+		for (Map.Entry<Column, SortedIndex> index : _indexes.entrySet()) {
+			index.getValue().add(index.getKey().valueOf(nutricionFacts), row);
+		}
+		return row;
+	}
+
+	public int size() {
+		_lock.readLock().lock();
+		try {
+			return _rows.size();
+		} finally {
+			_lock.readLock().unlock();
+		}
+	}
+
+	public NutricionFacts get(int row) {
+		_lock.readLock().lock();
+		try {
+			return _rows.get(row);
+		} finally {
+			_lock.readLock().unlock();
+		}
+	}
+
+	public boolean isIndexed(Column column) {
+		return _indexes.containsKey(column);
+	}
+
+	/**
+	 * @return the rows selected by the query
+	 */
+	public BitSet select(NutricionQuery query) {
+		_lock.readLock().lock();
+		try {
+			return query.select(this);
+		} finally {
+			_lock.readLock().unlock();
+		}
+	}
+
+	public int count(NutricionQuery query) {
+		return select(query).cardinality();
+	}
+
+	/**
+	 * @return the objects selected by the query, in insertion order
+	 */
+	public List<NutricionFacts> find(NutricionQuery query) {
+		_lock.readLock().lock();
+		try {
+			BitSet rows = query.select(this);
+			List<NutricionFacts> result = new ArrayList<NutricionFacts>(rows.cardinality());
+			for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+				result.add(_rows.get(row));
+			}
+			return result;
+		} finally {
+			_lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Called by the queries with the read lock held
+	 */
+	BitSet selectRange(Column column, int min, int max) {
+		BitSet rows = new BitSet(_rows.size());
+
+		SortedIndex index = _indexes.get(column);
+		if (index != null) {
+			index.select(min, max, rows);
+			return rows;
+		}
+
+		if (_rows.size() < PARALLEL_SCAN_THRESHOLD) {
+			for (int row = 0; row < _rows.size(); row++) {
+				int value = column.valueOf(_rows.get(row));
+				if (value >= min && value <= max) {
+					rows.set(row);
+				}
+			}
+			return rows;
+		}
+
+		long[] words = new long[(_rows.size() + 63) >>> 6];
+		ForkJoinPool.commonPool().invoke(new Scan(column, min, max, words, 0, _rows.size()));
+		return BitSet.valueOf(words);
+	}
+
+	private class Scan extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Column _column;
+		private final int _min;
+		private final int _max;
+		private final long[] _words;
+		private final int _from;
+		private final int _to;
+
+		Scan(Column column, int min, int max, long[] words, int from, int to) {
+			_column = column;
+			_min = min;
+			_max = max;
+			_words = words;
+			_from = from;
+			_to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (_to - _from > SCAN_TASK_ROWS) {
+				int middle = _from + ((_to - _from) / 2 / SCAN_TASK_ROWS) * SCAN_TASK_ROWS;
+				if (middle == _from) {
+					middle += SCAN_TASK_ROWS;
+				}
+
+				invokeAll(
+						new Scan(_column, _min, _max, _words, _from, middle),
+						new Scan(_column, _min, _max, _words, middle, _to)
+				);
+				return;
+			}
+
+			for (int row = _from; row < _to; row++) {
+				int value = _column.valueOf(_rows.get(row));
+				if (value >= _min && value <= _max) {
+					_words[row >>> 6] |= 1L << row;
+				}
+			}
+		}
+	}
+}
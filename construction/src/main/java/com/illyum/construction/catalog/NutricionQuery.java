@@ -0,0 +1,99 @@
+package com.illyum.construction.catalog;
+
+import java.util.BitSet;
+
+import com.illyum.construction.table.Column;
+
+/**
+ * A filter over the rows of a NutricionCatalog, built from ranges of column
+ * values combined with and/or. A query selects a bitmap of rows: ranges of
+ * indexed columns come from the index, the others from a parallel scan, and
+ * the bitmaps are intersected or joined
+ */
+public abstract class NutricionQuery {
+
+	/**
+	 * @return the rows whose value is between min and max, both inclusive
+	 */
+	public static NutricionQuery range(Column column, int min, int max) {
+		return new RangeQuery(column, min, max);
+	}
+
+	public static NutricionQuery atMost(Column column, int max) {
+		return range(column, Integer.MIN_VALUE, max);
+	}
+
+	public static NutricionQuery atLeast(Column column, int min) {
+		return range(column, min, Integer.MAX_VALUE);
+	}
+
+	public NutricionQuery and(NutricionQuery other) {
+		return new AndQuery(this, other);
+	}
+
+	public NutricionQuery or(NutricionQuery other) {
+		return new OrQuery(this, other);
+	}
+
+	/**
+	 * @return the selected rows of the catalog, the caller may modify it
+	 */
+	abstract BitSet select(NutricionCatalog catalog);
+
+	private static class RangeQuery extends NutricionQuery {
+		private final Column _column;
+		private final int _min;
+		private final int _max;
+
+		RangeQuery(Column column, int min, int max) {
+			if (column == null) {
+				throw new IllegalArgumentException("The range needs a column");
+			}
+
+			_column = column;
+			_min = min;
+			_max = max;
+		}
+
+		@Override
+		BitSet select(NutricionCatalog catalog) {
+			return catalog.selectRange(_column, _min, _max);
+		}
+	}
+
+	private static class AndQuery extends NutricionQuery {
+		private final NutricionQuery _one;
+		private final NutricionQuery _other;
+
+		AndQuery(NutricionQuery one, NutricionQuery other) {
+			_one = one;
+			_other = other;
+		}
+
+		@Override
+		BitSet select(NutricionCatalog catalog) {
+			BitSet rows = _one.select(catalog);
+			if (!rows.isEmpty()) {
+				rows.and(_other.select(catalog));
+			}
+			return rows;
+		}
+	}
+
+	private static class OrQuery extends NutricionQuery {
+		private final NutricionQuery _one;
+		private final NutricionQuery _other;
+
+		OrQuery(NutricionQuery one, NutricionQuery other) {
+			_one = one;
+			_other = other;
+		}
+
+		@Override
+		BitSet select(NutricionCatalog catalog) {
+			BitSet rows = _one.select(catalog);
+			rows.or(_other.select(catalog));
+			return rows;
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package com.illyum.construction.catalog;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Secondary index of a column: the rows sorted by value, so a range is found
+ * with two binary searches.
+ *
+ * Entries pack the value in the high half of a long and the row in the low
+ * half, so sorting the longs sorts by value. New entries go to an unsorted
+ * delta that is scanned by the queries and merged into the sorted entries
+ * when it reaches a fraction of them, which keeps inserts amortized cheap
+ */
+class SortedIndex {
+	private static final int MIN_DELTA = 4096;
+	private static final int DELTA_FRACTION = 16;
+
+	private long[] _sorted = new long[0];
+	private long[] _delta = new long[MIN_DELTA];
+	private int _deltaSize;
+
+	void add(int value, int row) {
+		if (_deltaSize == _delta.length) {
+			_delta = Arrays.copyOf(_delta, _delta.length * 2);
+		}
+		_delta[_deltaSize++] = pack(value, row);
+
+		if (_deltaSize >= Math.max(MIN_DELTA, _sorted.length / DELTA_FRACTION)) {
+			merge();
+		}
+	}
+
+	/**
+	 * Merges the delta into the sorted entries
+	 */
+	void merge() {
+		if (_deltaSize == 0) {
+			return;
+		}
+
+		long[] delta = Arrays.copyOf(_delta, _deltaSize);
+		Arrays.sort(delta);
+
+		long[] merged = new long[_sorted.length + delta.length];
+		int i = 0;
+		int j = 0;
+		int k = 0;
+		while (i < _sorted.length && j < delta.length) {
+			merged[k++] = _sorted[i] <= delta[j] ? _sorted[i++] : delta[j++];
+		}
+		System.arraycopy(_sorted, i, merged, k, _sorted.length - i);
+		System.arraycopy(delta, j, merged, k + _sorted.length - i, delta.length - j);
+
+		_sorted = merged;
+		_deltaSize = 0;
+		if (_delta.length > MIN_DELTA) {
+			_delta = new long[MIN_DELTA];
+		}
+	}
+
+	/**
+	 * Sets the rows whose value is between min and max, both inclusive
+	 */
+	void select(int min, int max, BitSet result) {
+		if (min > max) {
+			return;
+		}
+
+		int from = search(pack(min, 0), false);
+		int to = search(pack(max, -1), true);
+		for (int i = from; i < to; i++) {
+			result.set((int) _sorted[i]);
+		}
+
+		for (int i = 0; i < _deltaSize; i++) {
+			int value = (int) (_delta[i] >> 32);
+			if (value >= min && value <= max) {
+				result.set((int) _delta[i]);
+			}
+		}
+	}
+
+	/**
+	 * @return the index of the first sorted entry greater than key, or equal to
+	 *         it when not strict
+	 */
+	private int search(long key, boolean strict) {
+		int low = 0;
+		int high = _sorted.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (_sorted[middle] < key || (strict && _sorted[middle] == key)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private static long pack(int value, int row) {
+		return ((long) value << 32) | (row & 0xFFFFFFFFL);
+	}
+}
@@ -0,0 +1,156 @@
+package com.illyum.construction.codec;
+
+import java.nio.ByteBuffer;
+
+import com.illyum.construction.builder.NutricionFacts;
+
+/**
+ * Reads NutricionFacts in place from a ByteBuffer, following
+ * NutricionFactsSchema, for instance from a memory-mapped file. The decoder is
+ * a flyweight over the current record: its getters read straight from the
+ * buffer and no object is created unless toNutricionFacts is called.
+ * Messages of newer versions are read too, the fields they append to the
+ * blocks are skipped.
+ *
+ * It is not thread-safe, but any number of decoders may read the same buffer
+ */
+public class NutricionFactsDecoder {
+	private ByteBuffer _buffer;
+	private int _offset;
+	private int _firstBlockOffset;
+	private int _blockOffset;
+	private int _blockLength;
+	private int _count;
+	private int _index;
+	private int _length;
+
+	/**
+	 * Reads the header of the message at the given offset, either a single
+	 * record or an array, and moves to its first record
+	 */
+	public NutricionFactsDecoder wrap(ByteBuffer buffer, int offset) {
+		NutricionFactsSchema.checkBounds(buffer, offset, NutricionFactsSchema.MESSAGE_HEADER_LENGTH);
+		ByteBuffer littleEndian = NutricionFactsSchema.littleEndian(buffer);
+
+		int blockLength = littleEndian.getShort(offset) & 0xFFFF;
+		int templateId = littleEndian.getShort(offset + 2) & 0xFFFF;
+		int schemaId = littleEndian.getShort(offset + 4) & 0xFFFF;
+		int version = littleEndian.getShort(offset + 6) & 0xFFFF;
+
+		if (schemaId != NutricionFactsSchema.SCHEMA_ID) {
+			throw new IllegalArgumentException("Unknown schema " + schemaId);
+		}
+		// newer versions may only append fields to the block, their known prefix is read
+		if (blockLength < NutricionFactsSchema.BLOCK_LENGTH) {
+			throw new IllegalArgumentException("Unsupported version " + version + " with blocks of " + blockLength);
+		}
+
+		int count;
+		int firstBlockOffset;
+		if (templateId == NutricionFactsSchema.RECORD_TEMPLATE_ID) {
+			count = 1;
+			firstBlockOffset = offset + NutricionFactsSchema.MESSAGE_HEADER_LENGTH;
+		} else if (templateId == NutricionFactsSchema.ARRAY_TEMPLATE_ID) {
+			int groupOffset = offset + NutricionFactsSchema.MESSAGE_HEADER_LENGTH;
+			NutricionFactsSchema.checkBounds(littleEndian, groupOffset, NutricionFactsSchema.GROUP_HEADER_LENGTH);
+			blockLength = littleEndian.getShort(groupOffset) & 0xFFFF;
+			count = littleEndian.getInt(groupOffset + 4);
+			firstBlockOffset = groupOffset + NutricionFactsSchema.GROUP_HEADER_LENGTH;
+			if (count < 0 || blockLength < NutricionFactsSchema.BLOCK_LENGTH) {
+				throw new IllegalArgumentException("Invalid group of " + count + " blocks of " + blockLength);
+			}
+		} else {
+			throw new IllegalArgumentException("Unknown template " + templateId);
+		}
+
+		// blocks of newer versions may be longer, the extra fields are skipped
+		long length = firstBlockOffset - offset + (long) count * blockLength;
+		if (length > littleEndian.limit() - offset) {
+			throw new IllegalArgumentException("The message needs " + length + " bytes at " + offset
+					+ ", the buffer limit is " + littleEndian.limit());
+		}
+
+		_buffer = littleEndian;
+		_offset = offset;
+		_firstBlockOffset = firstBlockOffset;
+		_blockOffset = firstBlockOffset;
+		_count = count;
+		_index = 0;
+		_length = (int) length;
+		_blockLength = blockLength;
+		return this;
+	}
+
+	/**
+	 * @return the number of records of the message
+	 */
+	public int count() {
+		return _count;
+	}
+
+	/**
+	 * @return the bytes of the message, the following message starts at
+	 *         getOffset() + encodedLength()
+	 */
+	public int encodedLength() {
+		return _length;
+	}
+
+	public int getOffset() {
+		return _offset;
+	}
+
+	/**
+	 * Points this flyweight to the given record of the message
+	 */
+	public NutricionFactsDecoder moveTo(int index) {
+		if (index < 0 || index >= _count) {
+			throw new IndexOutOfBoundsException("Record " + index + " of " + _count);
+		}
+
+		_index = index;
+		_blockOffset = _firstBlockOffset + index * _blockLength;
+		return this;
+	}
+
+	public int getIndex() {
+		return _index;
+	}
+
+	public int getServingSize() {
+		return _buffer.getInt(_blockOffset + NutricionFactsSchema.SERVING_SIZE_OFFSET);
+	}
+
+	public int getServings() {
+		return _buffer.getInt(_blockOffset + NutricionFactsSchema.SERVINGS_OFFSET);
+	}
+
+	public int getCalories() {
+		return _buffer.getInt(_blockOffset + NutricionFactsSchema.CALORIES_OFFSET);
+	}
+
+	public int getFat() {
+		return _buffer.getInt(_blockOffset + NutricionFactsSchema.FAT_OFFSET);
+	}
+
+	public int getSodium() {
+		return _buffer.getInt(_blockOffset + NutricionFactsSchema.SODIUM_OFFSET);
+	}
+
+	public int getCarbohydrate() {
+		return _buffer.getInt(_blockOffset + NutricionFactsSchema.CARBOHYDRATE_OFFSET);
+	}
+
+	/**
+	 * @return a new object with the values of the current record
+	 */
+	public NutricionFacts toNutricionFacts() {
+		return NutricionFacts.Builder
+				.local(getServingSize(), getServings())
+				.calories(getCalories())
+				.fat(getFat())
+				.sodium(getSodium())
+				.carbohydrate(getCarbohydrate())
+				.build();
+	}
+}
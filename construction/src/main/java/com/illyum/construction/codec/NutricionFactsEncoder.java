@@ -0,0 +1,163 @@
+package com.illyum.construction.codec;
+
+import java.nio.ByteBuffer;
+
+import com.illyum.construction.builder.NutricionFacts;
+
+/**
+ * Writes NutricionFacts in place into a ByteBuffer, following
+ * NutricionFactsSchema. The encoder is a flyweight: it keeps no values, each
+ * setter writes straight into the buffer, so one encoder may write any number
+ * of records.
+ *
+ * The setters mirror NutricionFacts.Builder, so code that fills a builder can
+ * fill an encoder instead of allocating objects. It is not thread-safe
+ */
+public class NutricionFactsEncoder {
+	private ByteBuffer _buffer;
+	private int _offset;
+	private int _blockOffset;
+	private int _count;
+	private int _next;
+	private boolean _array;
+
+	/**
+	 * Starts a single record message at the given offset
+	 */
+	public NutricionFactsEncoder wrap(ByteBuffer buffer, int offset) {
+		NutricionFactsSchema.checkBounds(buffer, offset, NutricionFactsSchema.recordLength());
+
+		_buffer = NutricionFactsSchema.littleEndian(buffer);
+		_offset = offset;
+		writeHeader(NutricionFactsSchema.RECORD_TEMPLATE_ID);
+
+		_blockOffset = offset + NutricionFactsSchema.MESSAGE_HEADER_LENGTH;
+		_count = 1;
+		_next = 1;
+		_array = false;
+		return this;
+	}
+
+	/**
+	 * Starts an array message of count records at the given offset, each record
+	 * is started with next, the setters fail until the first one is
+	 */
+	public NutricionFactsEncoder wrapArray(ByteBuffer buffer, int offset, int count) {
+		NutricionFactsSchema.checkBounds(buffer, offset, NutricionFactsSchema.arrayLength(count));
+
+		_buffer = NutricionFactsSchema.littleEndian(buffer);
+		_offset = offset;
+		writeHeader(NutricionFactsSchema.ARRAY_TEMPLATE_ID);
+
+		int groupOffset = offset + NutricionFactsSchema.MESSAGE_HEADER_LENGTH;
+		_buffer.putShort(groupOffset, (short) NutricionFactsSchema.BLOCK_LENGTH);
+		_buffer.putShort(groupOffset + 2, (short) 0);
+		_buffer.putInt(groupOffset + 4, count);
+
+		_blockOffset = groupOffset + NutricionFactsSchema.GROUP_HEADER_LENGTH - NutricionFactsSchema.BLOCK_LENGTH;
+		_count = count;
+		_next = 0;
+		_array = true;
+		return this;
+	}
+
+	private void writeHeader(int templateId) {
+		_buffer.putShort(_offset, (short) NutricionFactsSchema.BLOCK_LENGTH);
+		_buffer.putShort(_offset + 2, (short) templateId);
+		_buffer.putShort(_offset + 4, (short) NutricionFactsSchema.SCHEMA_ID);
+		_buffer.putShort(_offset + 6, (short) NutricionFactsSchema.VERSION);
+	}
+
+	/**
+	 * Moves to the following record of the array, its optional parameters are
+	 * initialized to default values
+	 */
+	public NutricionFactsEncoder next(int servingSize, int servings) {
+		if (_next == _count) {
+			throw new IllegalStateException("The " + _count + " records have been written");
+		}
+
+		_next++;
+		_blockOffset += NutricionFactsSchema.BLOCK_LENGTH;
+		return reset(servingSize, servings);
+	}
+
+	/**
+	 * Writes the required parameters of the current record, its optional
+	 * parameters go back to their default values
+	 */
+	public NutricionFactsEncoder reset(int servingSize, int servings) {
+		int blockOffset = blockOffset();
+		_buffer.putInt(blockOffset + NutricionFactsSchema.SERVING_SIZE_OFFSET, servingSize);
+		_buffer.putInt(blockOffset + NutricionFactsSchema.SERVINGS_OFFSET, servings);
+		_buffer.putInt(blockOffset + NutricionFactsSchema.CALORIES_OFFSET, 0);
+		_buffer.putInt(blockOffset + NutricionFactsSchema.FAT_OFFSET, 0);
+		_buffer.putInt(blockOffset + NutricionFactsSchema.SODIUM_OFFSET, 0);
+		_buffer.putInt(blockOffset + NutricionFactsSchema.CARBOHYDRATE_OFFSET, 0);
+		return this;
+	}
+
+	public NutricionFactsEncoder calories(int val) {
+		_buffer.putInt(blockOffset() + NutricionFactsSchema.CALORIES_OFFSET, val);
+		return this;
+	}
+
+	public NutricionFactsEncoder fat(int val) {
+		_buffer.putInt(blockOffset() + NutricionFactsSchema.FAT_OFFSET, val);
+		return this;
+	}
+
+	public NutricionFactsEncoder carbohydrate(int val) {
+		_buffer.putInt(blockOffset() + NutricionFactsSchema.CARBOHYDRATE_OFFSET, val);
+		return this;
+	}
+
+	public NutricionFactsEncoder sodium(int val) {
+		_buffer.putInt(blockOffset() + NutricionFactsSchema.SODIUM_OFFSET, val);
+		return this;
+	}
+
+	private int blockOffset() {
+		if (_next == 0) {
+			throw new IllegalStateException("next starts the first record of the array");
+		}
+
+		return _blockOffset;
+	}
+
+	/**
+	 * Writes the given object as the current record
+	 */
+	public NutricionFactsEncoder encode(NutricionFacts nutricionFacts) {
+		return reset(nutricionFacts.getServingSize(), nutricionFacts.getServings())
+				.calories(nutricionFacts.getCalories())
+				.fat(nutricionFacts.getFat())
+				.sodium(nutricionFacts.getSodium())
+				.carbohydrate(nutricionFacts.getCarbohydrate());
+	}
+
+	/**
+	 * Writes the given objects as an array message at the given offset
+	 *
+	 * @return the bytes written
+	 */
+	public int encodeAll(NutricionFacts[] nutricionFacts, ByteBuffer buffer, int offset) {
+		wrapArray(buffer, offset, nutricionFacts.length);
+		for (NutricionFacts each : nutricionFacts) {
+			next(each.getServingSize(), each.getServings())
+					.calories(each.getCalories())
+					.fat(each.getFat())
+					.sodium(each.getSodium())
+					.carbohydrate(each.getCarbohydrate());
+		}
+
+		return encodedLength();
+	}
+
+	/**
+	 * @return the bytes of the current message
+	 */
+	public int encodedLength() {
+		return _array ? NutricionFactsSchema.arrayLength(_count) : NutricionFactsSchema.recordLength();
+	}
+}
@@ -0,0 +1,76 @@
+package com.illyum.construction.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The fixed binary layout of NutricionFacts, little endian.
+ *
+ * <pre>
+ * message header   blockLength u16 | templateId u16 | schemaId u16 | version u16
+ * group header     blockLength u16 | padding u16    | count i32      (arrays only)
+ * block            servingSize i32 | servings i32 | calories i32 | fat i32 | sodium i32 | carbohydrate i32
+ * </pre>
+ *
+ * A single record is a message header followed by a block, an array is a
+ * message header, a group header and count blocks
+ */
+public final class NutricionFactsSchema {
+	public static final int SCHEMA_ID = 1;
+	public static final int VERSION = 1;
+
+	public static final int RECORD_TEMPLATE_ID = 1;
+	public static final int ARRAY_TEMPLATE_ID = 2;
+
+	public static final int MESSAGE_HEADER_LENGTH = 8;
+	public static final int GROUP_HEADER_LENGTH = 8;
+	public static final int BLOCK_LENGTH = 24;
+
+	/**
+	 * The most records of an array message whose length fits an int
+	 */
+	public static final int MAX_ARRAY_COUNT = (Integer.MAX_VALUE - MESSAGE_HEADER_LENGTH - GROUP_HEADER_LENGTH) / BLOCK_LENGTH;
+
+	static final int SERVING_SIZE_OFFSET = 0;
+	static final int SERVINGS_OFFSET = 4;
+	static final int CALORIES_OFFSET = 8;
+	static final int FAT_OFFSET = 12;
+	static final int SODIUM_OFFSET = 16;
+	static final int CARBOHYDRATE_OFFSET = 20;
+
+	private NutricionFactsSchema() {
+	}
+
+	/**
+	 * @return the bytes of a single record message
+	 */
+	public static int recordLength() {
+		return MESSAGE_HEADER_LENGTH + BLOCK_LENGTH;
+	}
+
+	/**
+	 * @return the bytes of an array message with the given number of records
+	 */
+	public static int arrayLength(int count) {
+		if (count < 0 || count > MAX_ARRAY_COUNT) {
+			throw new IllegalArgumentException("An array message holds 0 to " + MAX_ARRAY_COUNT + " records, not " + count);
+		}
+
+		return MESSAGE_HEADER_LENGTH + GROUP_HEADER_LENGTH + count * BLOCK_LENGTH;
+	}
+
+	/**
+	 * @return the given buffer, or a view of it, in little endian order. The
+	 *         content is never copied
+	 */
+	static ByteBuffer littleEndian(ByteBuffer buffer) {
+		return buffer.order() == ByteOrder.LITTLE_ENDIAN ? buffer : buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	static void checkBounds(ByteBuffer buffer, int offset, int length) {
+		if (offset < 0 || offset > buffer.limit() - length) {
+			throw new IllegalArgumentException(
+					"The message needs " + length + " bytes at " + offset + ", the buffer limit is " + buffer.limit());
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.illyum.construction.importer;
+
+/**
+ * Row counts and throughput of an imported file
+ */
+public class ImportSummary {
+	private final long _rows;
+	private final long _rejected;
+	private final long _bytes;
+	private final long _elapsedNanos;
+
+	public ImportSummary(long rows, long rejected, long bytes, long elapsedNanos) {
+		_rows = rows;
+		_rejected = rejected;
+		_bytes = bytes;
+		_elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return the imported rows, the rejected ones are not included
+	 */
+	public long getRows() {
+		return _rows;
+	}
+
+	/**
+	 * @return the rows that could not be parsed
+	 */
+	public long getRejected() {
+		return _rejected;
+	}
+
+	public long getBytes() {
+		return _bytes;
+	}
+
+	public long getElapsedNanos() {
+		return _elapsedNanos;
+	}
+
+	public double getRowsPerSecond() {
+		return _elapsedNanos == 0 ? 0 : _rows * 1e9 / _elapsedNanos;
+	}
+
+	public double getMegabytesPerSecond() {
+		return _elapsedNanos == 0 ? 0 : _bytes * 1e9 / _elapsedNanos / (1024 * 1024);
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"%d rows, %d rejected, %d bytes in %d ms (%.0f rows/s, %.1f MB/s)",
+				_rows, _rejected, _bytes, _elapsedNanos / 1000000, getRowsPerSecond(), getMegabytesPerSecond()
+		);
+	}
+}
@@ -0,0 +1,334 @@
+package com.illyum.construction.importer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.illyum.construction.builder.NutricionFacts;
+
+/**
+ * Imports a CSV file of nutricion facts, one object per line with the columns
+ * servingSize, servings, calories, fat, sodium and carbohydrate. The required
+ * columns come first; the optional ones may be empty or missing and are
+ * initialized to default values.
+ *
+ * The file is split at line boundaries into chunks that are memory-mapped and
+ * parsed in parallel. Numbers are parsed straight from the bytes, no String is
+ * built per line, and every worker fills its thread local
+ * NutricionFacts.Builder.
+ *
+ * Empty lines are skipped, lines that cannot be parsed are rejected
+ */
+public class NutricionFactsImporter {
+	private static final int COLUMNS = 6;
+	private static final int REQUIRED_COLUMNS = 2;
+	private static final int BOUNDARY_BUFFER_SIZE = 4096;
+
+	private final byte _separator;
+	private final boolean _skipHeader;
+	private final int _chunkBytes;
+	private final int _parallelism;
+
+	public static class Builder {
+		// optional parameters - initialized to default values
+		private char _separator = ',';
+		private boolean _skipHeader = false;
+		private int _chunkBytes = 16 * 1024 * 1024;
+		private int _parallelism = Runtime.getRuntime().availableProcessors();
+
+		public Builder separator(char val) {
+			_separator = val;
+			return this;
+		}
+
+		public Builder skipHeader(boolean val) {
+			_skipHeader = val;
+			return this;
+		}
+
+		/**
+		 * @param val
+		 *          approximate bytes of a chunk, a chunk is extended to the end of
+		 *          its last line
+		 */
+		public Builder chunkBytes(int val) {
+			_chunkBytes = val;
+			return this;
+		}
+
+		public Builder parallelism(int val) {
+			_parallelism = val;
+			return this;
+		}
+
+		public NutricionFactsImporter build() {
+			return new NutricionFactsImporter(this);
+		}
+	}
+
+	private NutricionFactsImporter(Builder builder) {
+		if (builder._separator > 0x7f
+				|| (builder._separator >= '0' && builder._separator <= '9')
+				|| builder._separator == '-'
+				|| builder._separator == '\n'
+				|| builder._chunkBytes < 1
+				|| builder._parallelism < 1) {
+			throw new IllegalArgumentException("Invalid nutricion facts importer configuration");
+		}
+
+		_separator = (byte) builder._separator;
+		_skipHeader = builder._skipHeader;
+		_chunkBytes = builder._chunkBytes;
+		_parallelism = builder._parallelism;
+	}
+
+	/**
+	 * Hands every imported object to the sink, from the worker threads
+	 */
+	public ImportSummary importFile(Path file, final NutricionFactsSink sink) throws IOException {
+		return importChunks(file, new SinkFactory() {
+			@Override
+			public NutricionFactsSink sinkOf(int chunk) {
+				return sink;
+			}
+		});
+	}
+
+	/**
+	 * Adds the imported objects to the given list in the order of the file
+	 */
+	public ImportSummary importInto(Path file, List<NutricionFacts> result) throws IOException {
+		final List<List<NutricionFacts>> chunks = new ArrayList<List<NutricionFacts>>();
+
+		ImportSummary summary = importChunks(file, new SinkFactory() {
+			@Override
+			public NutricionFactsSink sinkOf(int chunk) {
+				final List<NutricionFacts> rows = new ArrayList<NutricionFacts>();
+				chunks.add(rows);
+				return new NutricionFactsSink() {
+					@Override
+					public void accept(NutricionFacts nutricionFacts) {
+						rows.add(nutricionFacts);
+					}
+				};
+			}
+		});
+
+		for (List<NutricionFacts> rows : chunks) {
+			result.addAll(rows);
+		}
+		return summary;
+	}
+
+	private interface SinkFactory {
+		/**
+		 * Called on the calling thread for each chunk, in the order of the file
+		 */
+		NutricionFactsSink sinkOf(int chunk);
+	}
+
+	private ImportSummary importChunks(Path file, SinkFactory sinks) throws IOException {
+		long start = System.nanoTime();
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			List<Long> boundaries = split(channel, size);
+
+			int chunks = boundaries.size() - 1;
+			ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, Math.min(_parallelism, chunks)));
+			try {
+				List<Future<long[]>> counts = new ArrayList<Future<long[]>>(chunks);
+				for (int c = 0; c < chunks; c++) {
+					counts.add(workers.submit(new ChunkParser(
+							channel, boundaries.get(c), boundaries.get(c + 1), sinks.sinkOf(c))));
+				}
+
+				long rows = 0;
+				long rejected = 0;
+				for (Future<long[]> count : counts) {
+					long[] chunkCounts = get(count);
+					rows += chunkCounts[0];
+					rejected += chunkCounts[1];
+				}
+
+				return new ImportSummary(rows, rejected, size, System.nanoTime() - start);
+			} finally {
+				workers.shutdownNow();
+			}
+		}
+	}
+
+	private static long[] get(Future<long[]> count) throws IOException {
+		try {
+			return count.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while importing", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * @return the offsets where the chunks start, followed by the size of the
+	 *         file
+	 */
+	private List<Long> split(FileChannel channel, long size) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_BUFFER_SIZE);
+		List<Long> boundaries = new ArrayList<Long>();
+
+		long position = _skipHeader ? nextLine(channel, 0, size, buffer) : 0;
+		boundaries.add(position);
+		while (position < size) {
+			position = nextLine(channel, Math.min(size, position + _chunkBytes), size, buffer);
+			boundaries.add(position);
+		}
+
+		return boundaries;
+	}
+
+	/**
+	 * @return the offset of the line following the given position, the size of
+	 *         the file when there is none
+	 */
+	private static long nextLine(FileChannel channel, long position, long size, ByteBuffer buffer) throws IOException {
+		// the line starting at position belongs to the previous chunk too
+		position = Math.max(0, position - 1);
+
+		while (position < size) {
+			buffer.clear();
+			int read = channel.read(buffer, position);
+			if (read <= 0) {
+				break;
+			}
+
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == '\n') {
+					return position + i + 1;
+				}
+			}
+			position += read;
+		}
+
+		return size;
+	}
+
+	private class ChunkParser implements Callable<long[]> {
+		private final FileChannel _channel;
+		private final long _start;
+		private final long _end;
+		private final NutricionFactsSink _sink;
+
+		ChunkParser(FileChannel channel, long start, long end, NutricionFactsSink sink) {
+			_channel = channel;
+			_start = start;
+			_end = end;
+			_sink = sink;
+		}
+
+		@Override
+		public long[] call() throws IOException {
+			if (_end - _start > Integer.MAX_VALUE) {
+				throw new IOException("The line at " + _start + " is too long");
+			}
+
+			MappedByteBuffer bytes = _channel.map(FileChannel.MapMode.READ_ONLY, _start, _end - _start);
+			int limit = bytes.limit();
+			int[] fields = new int[COLUMNS];
+			long rows = 0;
+			long rejected = 0;
+
+			int lineStart = 0;
+			while (lineStart < limit) {
+				int lineEnd = lineStart;
+				while (lineEnd < limit && bytes.get(lineEnd) != '\n') {
+					lineEnd++;
+				}
+
+				int contentEnd = lineEnd > lineStart && bytes.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+				if (contentEnd > lineStart) {
+					if (parseLine(bytes, lineStart, contentEnd, fields)) {
+						_sink.accept(NutricionFacts.Builder
+								.local(fields[0], fields[1])
+								.calories(fields[2])
+								.fat(fields[3])
+								.sodium(fields[4])
+								.carbohydrate(fields[5])
+								.build());
+						rows++;
+					} else {
+						rejected++;
+					}
+				}
+
+				lineStart = lineEnd + 1;
+			}
+
+			return new long[] { rows, rejected };
+		}
+	}
+
+	/**
+	 * @return whether the bytes between from and to hold a valid row, whose
+	 *         values are copied into fields
+	 */
+	private boolean parseLine(ByteBuffer bytes, int from, int to, int[] fields) {
+		int column = 0;
+		int value = 0;
+		int digits = 0;
+		boolean negative = false;
+
+		for (int i = from; i <= to; i++) {
+			byte b = i < to ? bytes.get(i) : _separator;
+
+			if (b == _separator) {
+				if (column >= COLUMNS || (digits == 0 && (negative || column < REQUIRED_COLUMNS))) {
+					return false;
+				}
+
+				fields[column++] = negative ? -value : value;
+				value = 0;
+				digits = 0;
+				negative = false;
+			} else if (b >= '0' && b <= '9') {
+				int digit = b - '0';
+				if (value > (Integer.MAX_VALUE - digit) / 10) {
+					return false;
+				}
+
+				value = value * 10 + digit;
+				digits++;
+			} else if (b == '-' && digits == 0 && !negative) {
+				negative = true;
+			} else {
+				return false;
+			}
+		}
+
+		if (column < REQUIRED_COLUMNS) {
+			return false;
+		}
+
+		for (; column < COLUMNS; column++) {
+			fields[column] = 0;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,11 @@
+package com.illyum.construction.importer;
+
+import com.illyum.construction.builder.NutricionFacts;
+
+/**
+ * Receives the imported objects. The importer calls it from several threads at
+ * the same time, in no particular order
+ */
+public interface NutricionFactsSink {
+	void accept(NutricionFacts nutricionFacts);
+}
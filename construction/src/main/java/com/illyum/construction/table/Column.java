@@ -0,0 +1,50 @@
+package com.illyum.construction.table;
+
+import com.illyum.construction.builder.NutricionFacts;
+
+/**
+ * The columns of a NutricionFactsTable
+ */
+public enum Column {
+	SERVING_SIZE {
+		@Override
+		public int valueOf(NutricionFacts nutricionFacts) {
+			return nutricionFacts.getServingSize();
+		}
+	},
+	SERVINGS {
+		@Override
+		public int valueOf(NutricionFacts nutricionFacts) {
+			return nutricionFacts.getServings();
+		}
+	},
+	CALORIES {
+		@Override
+		public int valueOf(NutricionFacts nutricionFacts) {
+			return nutricionFacts.getCalories();
+		}
+	},
+	FAT {
+		@Override
+		public int valueOf(NutricionFacts nutricionFacts) {
+			return nutricionFacts.getFat();
+		}
+	},
+	SODIUM {
+		@Override
+		public int valueOf(NutricionFacts nutricionFacts) {
+			return nutricionFacts.getSodium();
+		}
+	},
+	CARBOHYDRATE {
+		@Override
+		public int valueOf(NutricionFacts nutricionFacts) {
+			return nutricionFacts.getCarbohydrate();
+		}
+	};
+
+	/**
+	 * @return the value of this column in the given object
+	 */
+	public abstract int valueOf(NutricionFacts nutricionFacts);
+}
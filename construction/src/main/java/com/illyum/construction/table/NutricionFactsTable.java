@@ -0,0 +1,281 @@
+package com.illyum.construction.table;
+
+import java.util.Arrays;
+
+import com.illyum.construction.builder.NutricionFacts;
+
+/**
+ * Keeps the nutricion facts column by column, an int array per Column instead
+ * of an object per row: there are no object headers nor references, and a
+ * scan over a column reads contiguous memory that the JIT can vectorize.
+ *
+ * Rows are appended with a builder-like API and read through flyweight Row
+ * views. The table is not thread-safe
+ */
+public class NutricionFactsTable {
+	private static final int DEFAULT_CAPACITY = 1024;
+	private static final Column[] COLUMNS = Column.values();
+
+	private final int[][] _columns;
+	private final Appender _appender = new Appender();
+	private int _size;
+
+	public NutricionFactsTable() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public NutricionFactsTable(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity must be positive");
+		}
+
+		_columns = new int[COLUMNS.length][capacity];
+	}
+
+	/**
+	 * Adds a row with the required parameters, the optional parameters are
+	 * initialized to default values and may be set with the returned appender.
+	 * The appender is reused by the following append
+	 */
+	public Appender append(int servingSize, int servings) {
+		if (_size == _columns[0].length) {
+			grow();
+		}
+
+		int row = _size++;
+		int[][] columns = _columns;
+		columns[Column.SERVING_SIZE.ordinal()][row] = servingSize;
+		columns[Column.SERVINGS.ordinal()][row] = servings;
+		columns[Column.CALORIES.ordinal()][row] = 0;
+		columns[Column.FAT.ordinal()][row] = 0;
+		columns[Column.SODIUM.ordinal()][row] = 0;
+		columns[Column.CARBOHYDRATE.ordinal()][row] = 0;
+
+		_appender._row = row;
+		return _appender;
+	}
+
+	/**
+	 * Adds a row with the values of the given object
+	 */
+	public void add(NutricionFacts nutricionFacts) {
+		append(nutricionFacts.getServingSize(), nutricionFacts.getServings())
+				.calories(nutricionFacts.getCalories())
+				.fat(nutricionFacts.getFat())
+				.sodium(nutricionFacts.getSodium())
+				.carbohydrate(nutricionFacts.getCarbohydrate());
+	}
+
+	private void grow() {
+		int capacity = _columns[0].length;
+		int newCapacity = capacity > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE - 8 : capacity * 2;
+		if (newCapacity <= capacity) {
+			throw new IllegalStateException("The table is full");
+		}
+
+		for (int c = 0; c < _columns.length; c++) {
+			_columns[c] = Arrays.copyOf(_columns[c], newCapacity);
+		}
+	}
+
+	public int size() {
+		return _size;
+	}
+
+	public int get(Column column, int row) {
+		checkRow(row);
+		return _columns[column.ordinal()][row];
+	}
+
+	/**
+	 * @return a view of the given row, it may be moved to other rows to scan the
+	 *         table without allocating
+	 */
+	public Row row(int row) {
+		checkRow(row);
+		Row view = new Row();
+		view._row = row;
+		return view;
+	}
+
+	/**
+	 * @return a new object with the values of the given row
+	 */
+	public NutricionFacts toNutricionFacts(int row) {
+		checkRow(row);
+		return NutricionFacts.Builder
+				.local(_columns[Column.SERVING_SIZE.ordinal()][row], _columns[Column.SERVINGS.ordinal()][row])
+				.calories(_columns[Column.CALORIES.ordinal()][row])
+				.fat(_columns[Column.FAT.ordinal()][row])
+				.sodium(_columns[Column.SODIUM.ordinal()][row])
+				.carbohydrate(_columns[Column.CARBOHYDRATE.ordinal()][row])
+				.build();
+	}
+
+	public long sum(Column column) {
+		return sum(column, 0, _size);
+	}
+
+	/**
+	 * @param from
+	 *          the first row, inclusive
+	 * @param to
+	 *          the last row, exclusive
+	 */
+	public long sum(Column column, int from, int to) {
+		checkRange(from, to);
+		int[] values = _columns[column.ordinal()];
+
+		long sum = 0;
+		for (int row = from; row < to; row++) {
+			sum += values[row];
+		}
+		return sum;
+	}
+
+	/**
+	 * @return the minimum of the column, Integer.MAX_VALUE for an empty table
+	 */
+	public int min(Column column) {
+		return min(column, 0, _size);
+	}
+
+	public int min(Column column, int from, int to) {
+		checkRange(from, to);
+		int[] values = _columns[column.ordinal()];
+
+		int min = Integer.MAX_VALUE;
+		for (int row = from; row < to; row++) {
+			min = Math.min(min, values[row]);
+		}
+		return min;
+	}
+
+	/**
+	 * @return the maximum of the column, Integer.MIN_VALUE for an empty table
+	 */
+	public int max(Column column) {
+		return max(column, 0, _size);
+	}
+
+	public int max(Column column, int from, int to) {
+		checkRange(from, to);
+		int[] values = _columns[column.ordinal()];
+
+		int max = Integer.MIN_VALUE;
+		for (int row = from; row < to; row++) {
+			max = Math.max(max, values[row]);
+		}
+		return max;
+	}
+
+	/**
+	 * @return the number of rows whose value is between min and max, both
+	 *         inclusive
+	 */
+	public int count(Column column, int min, int max) {
+		return count(column, min, max, 0, _size);
+	}
+
+	public int count(Column column, int min, int max, int from, int to) {
+		checkRange(from, to);
+		int[] values = _columns[column.ordinal()];
+
+		// without branches the loop does not depend on the selectivity
+		int count = 0;
+		for (int row = from; row < to; row++) {
+			int value = values[row];
+			count += (value >= min & value <= max) ? 1 : 0;
+		}
+		return count;
+	}
+
+	private void checkRow(int row) {
+		if (row < 0 || row >= _size) {
+			throw new IndexOutOfBoundsException("Row " + row + " of " + _size);
+		}
+	}
+
+	private void checkRange(int from, int to) {
+		if (from < 0 || to > _size || from > to) {
+			throw new IndexOutOfBoundsException("Rows " + from + " to " + to + " of " + _size);
+		}
+	}
+
+	/**
+	 * Sets the optional parameters of the last appended row
+	 */
+	public class Appender {
+		private int _row;
+
+		private Appender() {
+		}
+
+		public Appender calories(int val) {
+			_columns[Column.CALORIES.ordinal()][_row] = val;
+			return this;
+		}
+
+		public Appender fat(int val) {
+			_columns[Column.FAT.ordinal()][_row] = val;
+			return this;
+		}
+
+		public Appender sodium(int val) {
+			_columns[Column.SODIUM.ordinal()][_row] = val;
+			return this;
+		}
+
+		public Appender carbohydrate(int val) {
+			_columns[Column.CARBOHYDRATE.ordinal()][_row] = val;
+			return this;
+		}
+	}
+
+	/**
+	 * A flyweight over a row of the table with the getters of NutricionFacts
+	 */
+	public class Row {
+		private int _row;
+
+		private Row() {
+		}
+
+		public int getRow() {
+			return _row;
+		}
+
+		/**
+		 * Points this view to another row
+		 */
+		public Row moveTo(int row) {
+			checkRow(row);
+			_row = row;
+			return this;
+		}
+
+		public int getServingSize() {
+			return _columns[Column.SERVING_SIZE.ordinal()][_row];
+		}
+
+		public int getServings() {
+			return _columns[Column.SERVINGS.ordinal()][_row];
+		}
+
+		public int getCalories() {
+			return _columns[Column.CALORIES.ordinal()][_row];
+		}
+
+		public int getFat() {
+			return _columns[Column.FAT.ordinal()][_row];
+		}
+
+		public int getSodium() {
+			return _columns[Column.SODIUM.ordinal()][_row];
+		}
+
+		public int getCarbohydrate() {
+			return _columns[Column.CARBOHYDRATE.ordinal()][_row];
+		}
+	}
+}
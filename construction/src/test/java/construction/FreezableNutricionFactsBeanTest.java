@@ -0,0 +1,98 @@
+package construction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.illyum.construction.bean.FreezableNutricionFactsBean;
+import com.illyum.construction.bean.NutricionFactsBean;
+import com.illyum.construction.builder.NutricionFacts;
+
+/**
+ * A frozen bean cannot be changed, so it may be shared by threads without
+ * locks
+ */
+public class FreezableNutricionFactsBeanTest {
+
+	private static FreezableNutricionFactsBean bean() {
+		FreezableNutricionFactsBean nutricionFacts = new FreezableNutricionFactsBean();
+		nutricionFacts.setServingSize(240);
+		nutricionFacts.setServings(8);
+		nutricionFacts.setCalories(100);
+		return nutricionFacts;
+	}
+
+	@Test
+	public void beanIsMutableUntilFrozen() {
+		// arrange
+		FreezableNutricionFactsBean nutricionFacts = bean();
+
+		// act
+		nutricionFacts.setSodium(35);
+
+		// assert
+		assertFalse(nutricionFacts.isFrozen());
+		assertEquals(35, nutricionFacts.getSodium());
+		assertTrue(nutricionFacts.freeze().isFrozen());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void settersOfAFrozenBeanThrow() {
+		// arrange
+		FreezableNutricionFactsBean nutricionFacts = bean().freeze();
+
+		// act
+		nutricionFacts.setFat(3);
+	}
+
+	@Test
+	public void frozenBeanIsSeenCompleteByOtherThreads() throws Exception {
+		// arrange: the reader runs before the bean exists and gets it through a
+		// plain field, the flag of the bean is the only ordering between them
+		final BeanHolder holder = new BeanHolder();
+		final int[] calories = new int[1];
+		Thread reader = new Thread() {
+			@Override
+			public void run() {
+				FreezableNutricionFactsBean nutricionFacts;
+				while ((nutricionFacts = holder._bean) == null || !nutricionFacts.isFrozen()) {
+					Thread.yield();
+				}
+				calories[0] = nutricionFacts.getCalories();
+			}
+		};
+		reader.start();
+
+		// act
+		holder._bean = bean().freeze();
+		reader.join(5000);
+
+		// assert
+		assertFalse(reader.isAlive());
+		assertEquals(100, calories[0]);
+	}
+
+	private static class BeanHolder {
+		FreezableNutricionFactsBean _bean;
+	}
+
+	@Test
+	public void bulkConversionToNutricionFacts() {
+		// arrange
+		NutricionFactsBean plain = new NutricionFactsBean();
+		plain.setServingSize(250);
+		plain.setServings(2);
+
+		// act
+		NutricionFacts[] nutricionFacts = FreezableNutricionFactsBean.toNutricionFacts(
+				new NutricionFactsBean[] { bean().freeze(), null, plain });
+
+		// assert
+		assertEquals(bean().toNutricionFacts(), nutricionFacts[0]);
+		assertNull(nutricionFacts[1]);
+		assertEquals(new NutricionFacts.Builder(250, 2).build(), nutricionFacts[2]);
+	}
+}
@@ -0,0 +1,95 @@
+package construction;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.illyum.construction.builder.NutricionFacts;
+import com.illyum.construction.catalog.NutricionCatalog;
+import com.illyum.construction.catalog.NutricionQuery;
+import com.illyum.construction.table.Column;
+
+/**
+ * Catalog queries combine ranges of indexed and unindexed columns
+ */
+public class NutricionCatalogTest {
+
+	private static NutricionFacts nutricionFacts(int calories, int sodium) {
+		return new NutricionFacts.Builder(240, 8).calories(calories).sodium(sodium).build();
+	}
+
+	@Test
+	public void rangesCombinedWithAndOr() {
+		// arrange
+		NutricionCatalog catalog = new NutricionCatalog(Column.CALORIES);
+		catalog.add(nutricionFacts(100, 35));
+		catalog.add(nutricionFacts(250, 10));
+		catalog.add(nutricionFacts(150, 200));
+		catalog.add(nutricionFacts(0, 0));
+
+		// act
+		List<NutricionFacts> lowCaloriesAndSodium = catalog.find(NutricionQuery
+				.atMost(Column.CALORIES, 199)
+				.and(NutricionQuery.atMost(Column.SODIUM, 139)));
+		int lowCaloriesOrHighSodium = catalog.count(NutricionQuery
+				.range(Column.CALORIES, 1, 199)
+				.or(NutricionQuery.atLeast(Column.SODIUM, 10)));
+
+		// assert
+		assertEquals(2, lowCaloriesAndSodium.size());
+		assertEquals(100, lowCaloriesAndSodium.get(0).getCalories());
+		assertEquals(0, lowCaloriesAndSodium.get(1).getCalories());
+		assertEquals(3, lowCaloriesOrHighSodium);
+	}
+
+	@Test
+	public void indexAndParallelScanAgreeWithAFullScan() {
+		// arrange
+		Random random = new Random(42);
+		List<NutricionFacts> rows = new ArrayList<NutricionFacts>();
+		for (int i = 0; i < 100000; i++) {
+			rows.add(nutricionFacts(random.nextInt(1000), random.nextInt(1000)));
+		}
+
+		NutricionCatalog indexed = new NutricionCatalog(Column.CALORIES, Column.SODIUM);
+		NutricionCatalog unindexed = new NutricionCatalog();
+		indexed.addAll(rows.subList(0, 50000));
+		unindexed.addAll(rows);
+		for (NutricionFacts row : rows.subList(50000, rows.size())) {
+			indexed.add(row);
+		}
+
+		int expected = 0;
+		for (NutricionFacts row : rows) {
+			if (row.getCalories() < 200 && row.getSodium() < 140) {
+				expected++;
+			}
+		}
+
+		NutricionQuery query = NutricionQuery
+				.atMost(Column.CALORIES, 199)
+				.and(NutricionQuery.atMost(Column.SODIUM, 139));
+
+		// act & assert
+		assertEquals(expected, indexed.count(query));
+		assertEquals(expected, unindexed.count(query));
+		assertEquals(indexed.select(query), unindexed.select(query));
+	}
+
+	@Test
+	public void extremeBounds() {
+		// arrange
+		NutricionCatalog catalog = new NutricionCatalog(Column.FAT);
+		catalog.add(new NutricionFacts.Builder(1, 1).fat(Integer.MIN_VALUE).build());
+		catalog.add(new NutricionFacts.Builder(1, 1).fat(Integer.MAX_VALUE).build());
+
+		// act & assert
+		assertEquals(2, catalog.count(NutricionQuery.range(Column.FAT, Integer.MIN_VALUE, Integer.MAX_VALUE)));
+		assertEquals(1, catalog.count(NutricionQuery.atLeast(Column.FAT, Integer.MAX_VALUE)));
+		assertEquals(0, catalog.count(NutricionQuery.range(Column.FAT, 1, 0)));
+	}
+}
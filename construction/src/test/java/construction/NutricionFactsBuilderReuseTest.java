@@ -0,0 +1,80 @@
+package construction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.illyum.construction.builder.NutricionFacts;
+
+/**
+ * When millions of objects are built in a loop the builder itself may be
+ * reused, only the built objects are allocated
+ */
+public class NutricionFactsBuilderReuseTest {
+	private static final int SERVING_SIZE = 240;
+	private static final int SERVINGS = 8;
+	private static final int CALORIES = 100;
+	private static final int SODIUM = 35;
+
+	@Test
+	public void resetClearsTheOptionalParameters() {
+		// arrange
+		NutricionFacts.Builder builder = new NutricionFacts
+				.Builder(SERVING_SIZE, SERVINGS)
+				.calories(CALORIES)
+				.sodium(SODIUM);
+		builder.build();
+
+		// act
+		NutricionFacts nutricionFacts = builder
+				.reset(SERVING_SIZE + 1, SERVINGS + 1)
+				.fat(1)
+				.build();
+
+		// assert
+		assertEquals(SERVING_SIZE + 1, nutricionFacts.getServingSize());
+		assertEquals(SERVINGS + 1, nutricionFacts.getServings());
+		assertEquals(0, nutricionFacts.getCalories());
+		assertEquals(0, nutricionFacts.getSodium());
+		assertEquals(1, nutricionFacts.getFat());
+	}
+
+	@Test
+	public void localBuilderIsReusedByTheSameThread() {
+		// arrange
+		NutricionFacts.Builder first = NutricionFacts.Builder.local(SERVING_SIZE, SERVINGS).calories(CALORIES);
+
+		// act
+		NutricionFacts.Builder second = NutricionFacts.Builder.local(SERVING_SIZE, SERVINGS);
+
+		// assert
+		assertSame(first, second);
+		assertEquals(0, second.build().getCalories());
+	}
+
+	@Test
+	public void buildAllFromColumns() {
+		// arrange
+		int[] servingSize = { 240, 250, 300 };
+		int[] servings = { 8, 2, 1 };
+		int[] calories = { 100, 0, 200 };
+		int[] sodium = { 35, 10, 5 };
+
+		// act
+		NutricionFacts[] nutricionFacts = NutricionFacts.buildAll(servingSize, servings, calories, null, sodium, null);
+
+		// assert
+		assertEquals(3, nutricionFacts.length);
+		assertEquals(250, nutricionFacts[1].getServingSize());
+		assertEquals(200, nutricionFacts[2].getCalories());
+		assertEquals(35, nutricionFacts[0].getSodium());
+		assertEquals(0, nutricionFacts[0].getFat());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void buildAllRejectsColumnsOfDifferentLength() {
+		// act
+		NutricionFacts.buildAll(new int[2], new int[2], new int[1], null, null, null);
+	}
+}
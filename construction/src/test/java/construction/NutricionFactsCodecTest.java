@@ -0,0 +1,181 @@
+package construction;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.illyum.construction.builder.NutricionFacts;
+import com.illyum.construction.codec.NutricionFactsDecoder;
+import com.illyum.construction.codec.NutricionFactsEncoder;
+import com.illyum.construction.codec.NutricionFactsSchema;
+
+/**
+ * Nutricion facts are exchanged as fixed-layout binary records, read in place
+ * without creating objects
+ */
+public class NutricionFactsCodecTest {
+	@Rule
+	public TemporaryFolder _folder = new TemporaryFolder();
+
+	@Test
+	public void encodeAndDecodeARecord() {
+		// arrange
+		ByteBuffer buffer = ByteBuffer.allocate(64).order(ByteOrder.BIG_ENDIAN);
+		NutricionFacts nutricionFacts = new NutricionFacts.Builder(240, 8).calories(100).sodium(35).build();
+
+		// act
+		int length = new NutricionFactsEncoder().wrap(buffer, 4).encode(nutricionFacts).encodedLength();
+		NutricionFactsDecoder decoder = new NutricionFactsDecoder().wrap(buffer, 4);
+
+		// assert
+		assertEquals(NutricionFactsSchema.recordLength(), length);
+		assertEquals(length, decoder.encodedLength());
+		assertEquals(1, decoder.count());
+		assertEquals(240, decoder.getServingSize());
+		assertEquals(8, decoder.getServings());
+		assertEquals(100, decoder.getCalories());
+		assertEquals(35, decoder.getSodium());
+		assertEquals(nutricionFacts, decoder.toNutricionFacts());
+	}
+
+	@Test
+	public void encoderMirrorsTheBuilder() {
+		// arrange
+		ByteBuffer buffer = ByteBuffer.allocate(NutricionFactsSchema.arrayLength(2));
+
+		// act
+		new NutricionFactsEncoder()
+				.wrapArray(buffer, 0, 2)
+				.next(240, 8).calories(100).fat(1)
+				.next(250, 2).carbohydrate(27);
+		NutricionFactsDecoder decoder = new NutricionFactsDecoder().wrap(buffer, 0);
+
+		// assert
+		assertEquals(2, decoder.count());
+		assertEquals(1, decoder.moveTo(0).getFat());
+		assertEquals(250, decoder.moveTo(1).getServingSize());
+		assertEquals(0, decoder.getCalories());
+		assertEquals(27, decoder.getCarbohydrate());
+	}
+
+	@Test
+	public void arrayThroughAMappedFile() throws Exception {
+		// arrange
+		NutricionFacts[] nutricionFacts = NutricionFacts.buildAll(
+				new int[] { 240, 250, 300 },
+				new int[] { 8, 2, 1 },
+				new int[] { 100, 0, 200 },
+				null,
+				null,
+				null
+		);
+		File file = _folder.newFile();
+		int length = NutricionFactsSchema.arrayLength(nutricionFacts.length);
+
+		// act
+		try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+			MappedByteBuffer mapped = out.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+			new NutricionFactsEncoder().encodeAll(nutricionFacts, mapped, 0);
+		}
+
+		// assert
+		try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+			MappedByteBuffer mapped = in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length());
+			NutricionFactsDecoder decoder = new NutricionFactsDecoder().wrap(mapped, 0);
+
+			assertEquals(3, decoder.count());
+			assertEquals(length, decoder.encodedLength());
+			for (int i = 0; i < nutricionFacts.length; i++) {
+				assertEquals(nutricionFacts[i], decoder.moveTo(i).toNutricionFacts());
+			}
+		}
+	}
+
+	@Test
+	public void newerVersionsAreReadUpToTheKnownFields() {
+		// arrange: an array of 2 records of version + 1, blocks of 32 bytes
+		int blockLength = NutricionFactsSchema.BLOCK_LENGTH + 8;
+		ByteBuffer buffer = ByteBuffer.allocate(16 + 2 * blockLength).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putShort((short) blockLength);
+		buffer.putShort((short) NutricionFactsSchema.ARRAY_TEMPLATE_ID);
+		buffer.putShort((short) NutricionFactsSchema.SCHEMA_ID);
+		buffer.putShort((short) (NutricionFactsSchema.VERSION + 1));
+		buffer.putShort((short) blockLength);
+		buffer.putShort((short) 0);
+		buffer.putInt(2);
+		for (int record = 1; record <= 2; record++) {
+			buffer.putInt(240 * record).putInt(8).putInt(100).putInt(0).putInt(35).putInt(27);
+			buffer.putLong(-1);
+		}
+
+		// act
+		NutricionFactsDecoder decoder = new NutricionFactsDecoder().wrap(buffer, 0);
+
+		// assert
+		assertEquals(buffer.capacity(), decoder.encodedLength());
+		assertEquals(240, decoder.getServingSize());
+		assertEquals(27, decoder.moveTo(1).getCarbohydrate());
+		assertEquals(480, decoder.getServingSize());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownSchemaIsRejected() {
+		// arrange
+		ByteBuffer buffer = ByteBuffer.allocate(NutricionFactsSchema.recordLength());
+		buffer.putShort(4, (short) 99);
+
+		// act
+		new NutricionFactsDecoder().wrap(buffer, 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void countOverflowingTheBufferIsRejected() {
+		// arrange
+		ByteBuffer buffer = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putShort(0, (short) NutricionFactsSchema.BLOCK_LENGTH);
+		buffer.putShort(2, (short) NutricionFactsSchema.ARRAY_TEMPLATE_ID);
+		buffer.putShort(4, (short) NutricionFactsSchema.SCHEMA_ID);
+		buffer.putShort(6, (short) NutricionFactsSchema.VERSION);
+		buffer.putShort(8, (short) NutricionFactsSchema.BLOCK_LENGTH);
+		buffer.putInt(12, 178956971);
+
+		// act
+		new NutricionFactsDecoder().wrap(buffer, 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void arrayLengthOverflowIsRejected() {
+		// act
+		NutricionFactsSchema.arrayLength(NutricionFactsSchema.MAX_ARRAY_COUNT + 1);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void arraySettersNeedARecord() {
+		// arrange
+		NutricionFactsEncoder encoder = new NutricionFactsEncoder()
+				.wrapArray(ByteBuffer.allocate(NutricionFactsSchema.arrayLength(1)), 0, 1);
+
+		// act
+		encoder.calories(100);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void arrayCannotExceedItsCount() {
+		// arrange
+		NutricionFactsEncoder encoder = new NutricionFactsEncoder()
+				.wrapArray(ByteBuffer.allocate(NutricionFactsSchema.arrayLength(1)), 0, 1)
+				.next(240, 8);
+
+		// act
+		encoder.next(250, 2);
+	}
+}
@@ -0,0 +1,92 @@
+package construction;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.illyum.construction.builder.NutricionFacts;
+import com.illyum.construction.importer.ImportSummary;
+import com.illyum.construction.importer.NutricionFactsImporter;
+import com.illyum.construction.importer.NutricionFactsSink;
+
+/**
+ * Large CSV files are imported by several workers over a memory-mapped file
+ */
+public class NutricionFactsImporterTest {
+	@Rule
+	public TemporaryFolder _folder = new TemporaryFolder();
+
+	private Path write(String content) throws IOException {
+		Path file = _folder.newFile().toPath();
+		Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+		return file;
+	}
+
+	@Test
+	public void rowsAreImportedInTheOrderOfTheFile() throws Exception {
+		// arrange
+		StringBuilder content = new StringBuilder("servingSize,servings,calories,fat,sodium,carbohydrate\n");
+		for (int i = 0; i < 1000; i++) {
+			content.append(i).append(',').append(i % 8).append(',').append(i * 2).append(",,35\r\n");
+		}
+		NutricionFactsImporter importer = new NutricionFactsImporter
+				.Builder()
+				.skipHeader(true)
+				.chunkBytes(64)
+				.parallelism(4)
+				.build();
+		List<NutricionFacts> result = new ArrayList<NutricionFacts>();
+
+		// act
+		ImportSummary summary = importer.importInto(write(content.toString()), result);
+
+		// assert
+		assertEquals(1000, summary.getRows());
+		assertEquals(0, summary.getRejected());
+		assertEquals(1000, result.size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(new NutricionFacts.Builder(i, i % 8).calories(i * 2).sodium(35).build(), result.get(i));
+		}
+	}
+
+	@Test
+	public void invalidRowsAreRejected() throws Exception {
+		// arrange
+		Path file = write("240,8\n\n240\n240,x\n240,8,1,2,3,4,5\n-1,8,-2\n99999999999,1\n250;2\n300,1,200");
+		NutricionFactsImporter importer = new NutricionFactsImporter.Builder().chunkBytes(8).build();
+		final AtomicLong calories = new AtomicLong();
+
+		// act
+		ImportSummary summary = importer.importFile(file, new NutricionFactsSink() {
+			@Override
+			public void accept(NutricionFacts nutricionFacts) {
+				calories.addAndGet(nutricionFacts.getCalories());
+			}
+		});
+
+		// assert
+		assertEquals(3, summary.getRows());
+		assertEquals(5, summary.getRejected());
+		assertEquals(198, calories.get());
+	}
+
+	@Test
+	public void emptyFile() throws Exception {
+		// act
+		ImportSummary summary = new NutricionFactsImporter.Builder().build().importFile(write(""), null);
+
+		// assert
+		assertEquals(0, summary.getRows());
+		assertEquals(0, summary.getBytes());
+	}
+}
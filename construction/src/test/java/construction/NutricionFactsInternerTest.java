@@ -0,0 +1,92 @@
+package construction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.illyum.construction.builder.NutricionFacts;
+import com.illyum.construction.builder.NutricionFactsInterner;
+
+/**
+ * Equal immutable objects may be shared instead of duplicated
+ */
+public class NutricionFactsInternerTest {
+
+	@Test
+	public void equalNutricionFacts() {
+		// arrange
+		NutricionFacts one = new NutricionFacts.Builder(240, 8).calories(100).build();
+		NutricionFacts other = new NutricionFacts.Builder(240, 8).calories(100).build();
+
+		// assert
+		assertEquals(one, other);
+		assertEquals(one.hashCode(), other.hashCode());
+	}
+
+	@Test
+	public void builderSharesEqualObjects() {
+		// arrange
+		NutricionFacts.Builder builder = new NutricionFacts
+				.Builder(240, 8)
+				.intern(NutricionFactsInterner.bounded(100))
+				.calories(100);
+		NutricionFacts first = builder.build();
+
+		// act
+		NutricionFacts second = builder.reset(240, 8).calories(100).build();
+		NutricionFacts third = builder.reset(240, 8).calories(200).build();
+
+		// assert
+		assertSame(first, second);
+		assertNotSame(first, third);
+	}
+
+	@Test
+	public void boundedInternerStopsInterningWhenFull() {
+		// arrange
+		NutricionFactsInterner interner = NutricionFactsInterner.bounded(1);
+		interner.intern(new NutricionFacts.Builder(240, 8).build());
+		NutricionFacts notInterned = new NutricionFacts.Builder(250, 2).build();
+
+		// act
+		interner.intern(notInterned);
+		NutricionFacts result = interner.intern(new NutricionFacts.Builder(250, 2).build());
+
+		// assert
+		assertEquals(1, interner.size());
+		assertNotSame(notInterned, result);
+	}
+
+	@Test
+	public void weakInterner() {
+		// arrange
+		NutricionFactsInterner interner = NutricionFactsInterner.weak();
+		NutricionFacts first = interner.intern(new NutricionFacts.Builder(240, 8).build());
+
+		// act
+		NutricionFacts second = interner.intern(new NutricionFacts.Builder(240, 8).build());
+
+		// assert
+		assertSame(first, second);
+	}
+
+	@Test
+	public void statistics() {
+		// arrange
+		NutricionFactsInterner interner = NutricionFactsInterner.bounded(100);
+		NutricionFacts.Builder builder = new NutricionFacts.Builder(240, 8).intern(interner);
+
+		// act
+		for (int i = 0; i < 4; i++) {
+			builder.reset(240, i % 2).build();
+		}
+
+		// assert
+		assertEquals(4, interner.getRequests());
+		assertEquals(2, interner.getHits());
+		assertEquals(0.5, interner.getDedupRatio(), 0);
+		assertEquals(2 * NutricionFactsInterner.INSTANCE_BYTES, interner.getMemorySaved());
+	}
+}
@@ -0,0 +1,83 @@
+package construction;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.illyum.construction.builder.NutricionFacts;
+import com.illyum.construction.table.Column;
+import com.illyum.construction.table.NutricionFactsTable;
+
+/**
+ * A table keeps many nutricion facts as primitive columns instead of objects
+ */
+public class NutricionFactsTableTest {
+
+	private static NutricionFactsTable table() {
+		NutricionFactsTable table = new NutricionFactsTable(1);
+		table.append(240, 8).calories(100).sodium(35).carbohydrate(27);
+		table.append(250, 2).fat(3);
+		table.add(new NutricionFacts.Builder(300, 1).calories(200).sodium(5).build());
+		return table;
+	}
+
+	@Test
+	public void appendGrowsTheTable() {
+		// act
+		NutricionFactsTable table = table();
+
+		// assert
+		assertEquals(3, table.size());
+		assertEquals(250, table.get(Column.SERVING_SIZE, 1));
+		assertEquals(200, table.get(Column.CALORIES, 2));
+	}
+
+	@Test
+	public void rowViewHasTheGettersOfNutricionFacts() {
+		// arrange
+		NutricionFactsTable table = table();
+
+		// act
+		NutricionFactsTable.Row row = table.row(0);
+
+		// assert
+		assertEquals(240, row.getServingSize());
+		assertEquals(8, row.getServings());
+		assertEquals(100, row.getCalories());
+		assertEquals(0, row.getFat());
+		assertEquals(35, row.getSodium());
+		assertEquals(27, row.getCarbohydrate());
+		assertEquals(3, row.moveTo(1).getFat());
+	}
+
+	@Test
+	public void rowToNutricionFacts() {
+		// act
+		NutricionFacts nutricionFacts = table().toNutricionFacts(2);
+
+		// assert
+		assertEquals(300, nutricionFacts.getServingSize());
+		assertEquals(200, nutricionFacts.getCalories());
+		assertEquals(5, nutricionFacts.getSodium());
+	}
+
+	@Test
+	public void aggregations() {
+		// arrange
+		NutricionFactsTable table = table();
+
+		// act & assert
+		assertEquals(300, table.sum(Column.CALORIES));
+		assertEquals(100, table.sum(Column.CALORIES, 0, 2));
+		assertEquals(0, table.min(Column.CALORIES));
+		assertEquals(300, table.max(Column.SERVING_SIZE));
+		assertEquals(2, table.count(Column.CALORIES, 1, 1000));
+		assertEquals(1, table.count(Column.SODIUM, 1, 10));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void rowOutOfTheTable() {
+		// act
+		table().row(3);
+	}
+}
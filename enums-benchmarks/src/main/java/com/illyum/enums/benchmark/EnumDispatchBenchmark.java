@@ -0,0 +1,276 @@
+package com.illyum.enums.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Throughput of the enum dispatch styles of EnumsTest: an enum that switches
+ * on itself, constant-specific methods and the strategy enum pattern.
+ *
+ * The enums are copies of the EnumsTest ones, which live in test sources. The
+ * profile sets how many constants reach the call sites: one, two or all of
+ * them. Constant-specific bodies are a class per constant, so the apply call
+ * site is megamorphic with the four operations; the strategy call site of
+ * PayrollDay never sees more than its two PayType classes. The order is
+ * either random, or sorted so branches and call targets come in long runs.
+ *
+ * <pre>
+ * mvn package
+ * java -jar target/benchmarks.jar EnumDispatchBenchmark
+ * java -Dinlining=true -cp target/benchmarks.jar com.illyum.enums.benchmark.EnumDispatchBenchmark
+ * </pre>
+ *
+ * The main method runs the suite and, when the inlining system property is
+ * true, prints the JIT inlining decisions of the forks
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EnumDispatchBenchmark {
+	private static final int INPUTS = 1024;
+
+	public enum Profile {
+		MONOMORPHIC(1),
+		BIMORPHIC(2),
+		MEGAMORPHIC(Integer.MAX_VALUE);
+
+		private final int _constants;
+
+		private Profile(int constants) {
+			_constants = constants;
+		}
+	}
+
+	public enum Order {
+		RANDOM,
+		SORTED
+	}
+
+	@Param({ "MONOMORPHIC", "BIMORPHIC", "MEGAMORPHIC" })
+	public Profile profile;
+
+	@Param({ "RANDOM", "SORTED" })
+	public Order order;
+
+	private OperationSwitch[] _switchOperations;
+	private OperationSpecificMethod[] _specificOperations;
+	private PayrollDaySwitch[] _switchDays;
+	private PayrollDay[] _strategyDays;
+	private double[] _xs;
+	private double[] _ys;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+
+		int[] operations = ordinals(random, OperationSwitch.values().length, new int[] { 0, 2 });
+		// the bimorphic days are a weekday and a weekend day
+		int[] days = ordinals(random, PayrollDaySwitch.values().length, new int[] { 0, 5 });
+
+		_switchOperations = new OperationSwitch[INPUTS];
+		_specificOperations = new OperationSpecificMethod[INPUTS];
+		_switchDays = new PayrollDaySwitch[INPUTS];
+		_strategyDays = new PayrollDay[INPUTS];
+		_xs = new double[INPUTS];
+		_ys = new double[INPUTS];
+		for (int i = 0; i < INPUTS; i++) {
+			_switchOperations[i] = OperationSwitch.values()[operations[i]];
+			_specificOperations[i] = OperationSpecificMethod.values()[operations[i]];
+			_switchDays[i] = PayrollDaySwitch.values()[days[i]];
+			_strategyDays[i] = PayrollDay.values()[days[i]];
+			_xs[i] = random.nextInt(12);
+			_ys[i] = 1 + random.nextInt(50);
+		}
+	}
+
+	/**
+	 * @param bimorphic
+	 *          the two ordinals of the bimorphic profile
+	 * @return the ordinals of the inputs for the profile and the order
+	 */
+	private int[] ordinals(Random random, int constants, int[] bimorphic) {
+		int[] ordinals = new int[INPUTS];
+		for (int i = 0; i < INPUTS; i++) {
+			switch (profile) {
+				case MONOMORPHIC:
+					ordinals[i] = bimorphic[0];
+					break;
+				case BIMORPHIC:
+					ordinals[i] = bimorphic[random.nextInt(2)];
+					break;
+				default:
+					ordinals[i] = random.nextInt(Math.min(constants, profile._constants));
+			}
+		}
+
+		if (order == Order.SORTED) {
+			Arrays.sort(ordinals);
+		}
+		return ordinals;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(INPUTS)
+	public double operationSwitch() {
+		double sum = 0;
+		for (int i = 0; i < INPUTS; i++) {
+			sum += _switchOperations[i].apply(_xs[i], _ys[i]);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(INPUTS)
+	public double operationSpecificMethod() {
+		double sum = 0;
+		for (int i = 0; i < INPUTS; i++) {
+			sum += _specificOperations[i].apply(_xs[i], _ys[i]);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(INPUTS)
+	public double payrollDaySwitch() {
+		double sum = 0;
+		for (int i = 0; i < INPUTS; i++) {
+			sum += _switchDays[i].pay(_xs[i], _ys[i]);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(INPUTS)
+	public double payrollDayStrategy() {
+		double sum = 0;
+		for (int i = 0; i < INPUTS; i++) {
+			sum += _strategyDays[i].pay(_xs[i], _ys[i]);
+		}
+		return sum;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		ChainedOptionsBuilder options = new OptionsBuilder()
+				.include(EnumDispatchBenchmark.class.getSimpleName());
+
+		if (Boolean.getBoolean("inlining")) {
+			options.jvmArgsAppend("-XX:+UnlockDiagnosticVMOptions", "-XX:+PrintInlining");
+		}
+
+		new Runner(options.build()).run();
+	}
+
+	// ------------- copies of the EnumsTest enums -----------------
+
+	public enum OperationSwitch {
+		PLUS, MINUS, TIMES, DIVIDE;
+
+		double apply(double x, double y) {
+			switch (this) {
+				case PLUS: return x + y;
+				case MINUS: return x - y;
+				case TIMES: return x * y;
+				case DIVIDE: return x / y;
+			}
+
+			throw new AssertionError("Unknown op: " + this);
+		}
+	}
+
+	public enum OperationSpecificMethod {
+		PLUS 		{ double apply(double x, double y) { return x + y; } },
+		MINUS 	{ double apply(double x, double y) { return x - y; } },
+		TIMES 	{ double apply(double x, double y) { return x * y; } },
+		DIVIDE 	{ double apply(double x, double y) { return x / y; } };
+
+		abstract double apply(double x, double y);
+	}
+
+	public enum PayrollDaySwitch {
+		MONDAY, TUESDAY, WEDNESDAY, THURSDAY, FRIDAY, SATURDAY, SUNDAY;
+
+		private static final int HOURS_PER_SHIFT = 8;
+
+		double pay(double hoursWorked, double payRate) {
+			double basePay = hoursWorked * payRate;
+
+			double overtimePay;
+			switch (this) {
+				case SATURDAY: case SUNDAY:
+					overtimePay = hoursWorked * payRate / 2;
+					break;
+				default:
+					overtimePay = hoursWorked <= HOURS_PER_SHIFT ?
+							0 : (hoursWorked - HOURS_PER_SHIFT) * payRate / 2;
+			}
+
+			return basePay + overtimePay;
+		}
+	}
+
+	public enum PayrollDay {
+		MONDAY		(PayType.WEEKDAY),
+		TUESDAY		(PayType.WEEKDAY),
+		WEDNESDAY	(PayType.WEEKDAY),
+		THURSDAY	(PayType.WEEKDAY),
+		FRIDAY		(PayType.WEEKDAY),
+
+		SATURDAY	(PayType.WEEKEND),
+		SUNDAY		(PayType.WEEKEND);
+
+		private final PayType _payType;
+
+		private PayrollDay(PayType payType) {
+			_payType = payType;
+		}
+
+		double pay(double hoursWorked, double payRate) {
+			return _payType.pay(hoursWorked, payRate);
+		}
+
+		private enum PayType {
+			WEEKDAY {
+				@Override
+				double overtimePay(double hrs, double payRate) {
+					return hrs <= HOURS_PER_SHIFT ? 0 : (hrs - HOURS_PER_SHIFT) * payRate / 2;
+				}
+			},
+			WEEKEND {
+				@Override
+				double overtimePay(double hrs, double payRate) {
+					return hrs * payRate / 2;
+				}
+			};
+
+			private static final int HOURS_PER_SHIFT = 8;
+
+			abstract double overtimePay(double hrs, double payRate);
+
+			double pay(double hoursWorked, double payRate) {
+				double basePay = hoursWorked * payRate;
+				return basePay + overtimePay(hoursWorked, payRate);
+			}
+		}
+	}
+}
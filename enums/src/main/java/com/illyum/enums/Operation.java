@@ -0,0 +1,121 @@
+package com.illyum.enums;
+
+/**
+ * The four operations of a basic calculator, an enum type with
+ * constant-specific class bodies and data
+ */
+public enum Operation {
+	PLUS('+', 1) {
+		@Override
+		public double apply(double x, double y) {
+			return x + y;
+		}
+
+		@Override
+		void applyAll(double[] xs, double[] ys, double[] out, int length) {
+			for (int i = 0; i < length; i++) {
+				out[i] = xs[i] + ys[i];
+			}
+		}
+	},
+	MINUS('-', 1) {
+		@Override
+		public double apply(double x, double y) {
+			return x - y;
+		}
+
+		@Override
+		void applyAll(double[] xs, double[] ys, double[] out, int length) {
+			for (int i = 0; i < length; i++) {
+				out[i] = xs[i] - ys[i];
+			}
+		}
+	},
+	TIMES('*', 2) {
+		@Override
+		public double apply(double x, double y) {
+			return x * y;
+		}
+
+		@Override
+		void applyAll(double[] xs, double[] ys, double[] out, int length) {
+			for (int i = 0; i < length; i++) {
+				out[i] = xs[i] * ys[i];
+			}
+		}
+	},
+	DIVIDE('/', 2) {
+		@Override
+		public double apply(double x, double y) {
+			return x / y;
+		}
+
+		@Override
+		void applyAll(double[] xs, double[] ys, double[] out, int length) {
+			for (int i = 0; i < length; i++) {
+				out[i] = xs[i] / ys[i];
+			}
+		}
+	};
+
+	private final char _symbol;
+	private final int _precedence;
+
+	private Operation(char symbol, int precedence) {
+		_symbol = symbol;
+		_precedence = precedence;
+	}
+
+	public char symbol() {
+		return _symbol;
+	}
+
+	/**
+	 * @return the binding strength of the operation, the higher the stronger
+	 */
+	public int precedence() {
+		return _precedence;
+	}
+
+	@Override
+	public String toString() {
+		return String.valueOf(_symbol);
+	}
+
+	public abstract double apply(double x, double y);
+
+	/**
+	 * Applies the operation element by element, out may be one of the operands.
+	 * Each constant has its own plain loop, so there is a single virtual call
+	 * per array and the JIT can vectorize the loop
+	 */
+	public void apply(double[] xs, double[] ys, double[] out) {
+		apply(xs, ys, out, out.length);
+	}
+
+	/**
+	 * Applies the operation to the first length elements
+	 */
+	public void apply(double[] xs, double[] ys, double[] out, int length) {
+		if (length < 0 || xs.length < length || ys.length < length || out.length < length) {
+			throw new IllegalArgumentException("The arrays must have " + length + " elements at least");
+		}
+
+		applyAll(xs, ys, out, length);
+	}
+
+	abstract void applyAll(double[] xs, double[] ys, double[] out, int length);
+
+	/**
+	 * @return the operation of the given symbol, null when there is none
+	 */
+	public static Operation fromSymbol(char symbol) {
+		for (Operation operation : values()) {
+			if (operation._symbol == symbol) {
+				return operation;
+			}
+		}
+
+		return null;
+	}
+}
@@ -0,0 +1,176 @@
+package com.illyum.enums;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * The planets of the solar system, an enum type with data and behavior.
+ *
+ * Besides the weight of a single mass, weights are computed in bulk as a
+ * table of planets by masses: a flat array, or file, with a row per planet in
+ * ordinal order and a column per mass. Each row is a plain multiplication
+ * loop the JIT can vectorize, and large tables are split in chunks computed
+ * in parallel
+ */
+public enum Planet {
+	MERCURY	(3.302e+23, 2.439e6),
+	VENUS		(4.869e+24, 6.052e6),
+	EARTH		(5.975e+24, 6.378e6),
+	MARS		(6.419e+23, 3.393e6),
+	JUPITER	(1.899e+27, 7.149e7),
+	SATURN	(5.685e+26, 6.027e7),
+	URANUS	(8.683e+25, 2.556e7),
+	NEPTUNE	(1.024e+26, 2.477e7);
+
+	// Universal gravitational constant in m^3 / kg s^2
+	private static final double G = 6.67300E-11;
+
+	private static final Planet[] PLANETS = values();
+
+	// masses per parallel chunk
+	private static final int CHUNK = 64 * 1024;
+
+	// masses per memory-mapped window of the files, 32 MB of doubles
+	private static final int WINDOW = 64 * CHUNK;
+
+	private final double _mass;						// in kilograms
+	private final double _radius;					// in meters
+	private final double _surfaceGravity;	// in m / s^2
+
+	private Planet(double mass, double radius) {
+		_mass = mass;
+		_radius = radius;
+		_surfaceGravity = G * mass / (radius * radius);
+	}
+
+	public double mass() { return _mass; }
+	public double radius() { return _radius; }
+	public double surfaceGravity() { return _surfaceGravity; }
+
+	public double surfaceWeight(double mass) {
+		return mass * _surfaceGravity;
+	}
+
+	/**
+	 * Writes the weight of masses[from] to masses[to - 1] at out[offset] and
+	 * the following elements
+	 */
+	public void surfaceWeights(double[] masses, int from, int to, double[] out, int offset) {
+		double surfaceGravity = _surfaceGravity;
+		for (int i = from; i < to; i++) {
+			out[offset + i - from] = masses[i] * surfaceGravity;
+		}
+	}
+
+	/**
+	 * Writes the weight of masses.get(i) at out.put(i), for i from from to
+	 * to - 1, with the absolute methods so threads may share the buffers
+	 */
+	private void surfaceWeights(DoubleBuffer masses, int from, int to, DoubleBuffer out) {
+		double surfaceGravity = _surfaceGravity;
+		for (int i = from; i < to; i++) {
+			out.put(i, masses.get(i) * surfaceGravity);
+		}
+	}
+
+	/**
+	 * @return the weight of every mass on every planet, the weight of
+	 *         masses[i] on planet p is at p.ordinal() * masses.length + i
+	 */
+	public static double[] weightTable(double[] masses) {
+		if ((long) masses.length * PLANETS.length > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The table of " + masses.length + " masses does not fit an array");
+		}
+
+		double[] table = new double[masses.length * PLANETS.length];
+		weightTable(masses, table);
+		return table;
+	}
+
+	/**
+	 * Fills the given table, see weightTable(double[])
+	 */
+	public static void weightTable(final double[] masses, final double[] table) {
+		final int n = masses.length;
+		if (table.length < (long) n * PLANETS.length) {
+			throw new IllegalArgumentException("The table needs room for " + PLANETS.length + " rows of " + n);
+		}
+
+		int chunks = (n + CHUNK - 1) / CHUNK;
+		IntStream tasks = IntStream.range(0, chunks * PLANETS.length);
+		if (chunks > 1) {
+			tasks = tasks.parallel();
+		}
+
+		tasks.forEach(task -> {
+			Planet planet = PLANETS[task % PLANETS.length];
+			int from = task / PLANETS.length * CHUNK;
+			int to = Math.min(n, from + CHUNK);
+			planet.surfaceWeights(masses, from, to, table, planet.ordinal() * n + from);
+		});
+	}
+
+	/**
+	 * Reads the masses of a file of little endian doubles and writes the table
+	 * of weights, in the layout of weightTable(double[]), to another file.
+	 * Both files are memory-mapped a window of many chunks at a time, a mapping
+	 * for the masses and one per row of weights, and the chunks of a window are
+	 * computed in parallel straight on the mapped buffers
+	 *
+	 * @return the number of masses
+	 */
+	public static long weightTable(Path masses, Path weights) throws IOException {
+		try (
+				FileChannel in = FileChannel.open(masses, StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(weights,
+						StandardOpenOption.CREATE,
+						StandardOpenOption.READ,
+						StandardOpenOption.WRITE,
+						StandardOpenOption.TRUNCATE_EXISTING)
+		) {
+			if (in.size() % Double.BYTES != 0) {
+				throw new IOException("The masses file does not hold whole doubles");
+			}
+
+			long n = in.size() / Double.BYTES;
+			for (long from = 0; from < n; from += WINDOW) {
+				weightWindow(in, out, n, from, (int) Math.min(WINDOW, n - from));
+			}
+
+			return n;
+		}
+	}
+
+	private static void weightWindow(FileChannel in, FileChannel out, long n, long from, int length) throws IOException {
+		DoubleBuffer masses = in
+				.map(FileChannel.MapMode.READ_ONLY, from * Double.BYTES, (long) length * Double.BYTES)
+				.order(ByteOrder.LITTLE_ENDIAN)
+				.asDoubleBuffer();
+
+		DoubleBuffer[] rows = new DoubleBuffer[PLANETS.length];
+		for (Planet planet : PLANETS) {
+			long position = (planet.ordinal() * n + from) * Double.BYTES;
+			rows[planet.ordinal()] = out
+					.map(FileChannel.MapMode.READ_WRITE, position, (long) length * Double.BYTES)
+					.order(ByteOrder.LITTLE_ENDIAN)
+					.asDoubleBuffer();
+		}
+
+		int chunks = (length + CHUNK - 1) / CHUNK;
+		IntStream tasks = IntStream.range(0, chunks * PLANETS.length);
+		if (chunks > 1) {
+			tasks = tasks.parallel();
+		}
+
+		tasks.forEach(task -> {
+			Planet planet = PLANETS[task % PLANETS.length];
+			int start = task / PLANETS.length * CHUNK;
+			planet.surfaceWeights(masses, start, Math.min(length, start + CHUNK), rows[planet.ordinal()]);
+		});
+	}
+}
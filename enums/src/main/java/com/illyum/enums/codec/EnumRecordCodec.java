@@ -0,0 +1,280 @@
+package com.illyum.enums.codec;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.EnumSet;
+
+/**
+ * Packs records of enum values into bit-fields by ordinal: a field of an enum
+ * type with n constants takes the bits needed for n - 1, and a record takes
+ * the whole bytes of its fields, at most 64 bits.
+ *
+ * Ordinals change when constants are added, removed or reordered, so the
+ * codec has a fingerprint of its schema, an FNV-1a hash of the field types and
+ * of the names of their constants in order. Encoded buffers start with it and
+ * a decoder of another schema rejects them.
+ *
+ * <pre>
+ * header   magic i32 | fingerprint i64 | count i32      (big endian)
+ * record   fields packed from the lowest bit, in whole bytes (little endian)
+ * </pre>
+ *
+ * Codecs are immutable and may be shared by threads
+ */
+public class EnumRecordCodec {
+	public static final int MAGIC = 0x454E554D;
+	public static final int HEADER_BYTES = 16;
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final Class<?>[] _types;
+	private final Enum<?>[][] _constants;
+	private final int[] _shifts;
+	private final int[] _bits;
+	private final int _recordBytes;
+	private final long _fingerprint;
+
+	/**
+	 * @param fields
+	 *          the enum type of each field of the records, in order
+	 */
+	@SafeVarargs
+	public EnumRecordCodec(Class<? extends Enum<?>>... fields) {
+		if (fields.length == 0) {
+			throw new IllegalArgumentException("A record needs a field at least");
+		}
+
+		// copied one by one, storing the varargs array itself is a heap pollution warning
+		_types = new Class<?>[fields.length];
+		for (int field = 0; field < fields.length; field++) {
+			_types[field] = fields[field];
+		}
+		_constants = new Enum<?>[fields.length][];
+		_shifts = new int[fields.length];
+		_bits = new int[fields.length];
+
+		int shift = 0;
+		long fingerprint = FNV_OFFSET_BASIS;
+		for (int field = 0; field < fields.length; field++) {
+			Enum<?>[] constants = fields[field].getEnumConstants();
+			if (constants == null) {
+				throw new IllegalArgumentException(fields[field] + " is not an enum type");
+			}
+
+			_constants[field] = constants;
+			_shifts[field] = shift;
+			_bits[field] = bitsFor(constants.length);
+			shift += _bits[field];
+
+			fingerprint = fnv1a(fingerprint, fields[field].getName());
+			for (Enum<?> constant : constants) {
+				fingerprint = fnv1a(fingerprint, constant.name());
+			}
+			fingerprint = fnv1a(fingerprint, ";");
+		}
+
+		if (shift > Long.SIZE) {
+			throw new IllegalArgumentException("The fields need " + shift + " bits, a record holds " + Long.SIZE);
+		}
+
+		_recordBytes = Math.max(1, (shift + 7) / 8);
+		_fingerprint = fingerprint;
+	}
+
+	/**
+	 * @return the bits needed by the ordinals of an enum type with the given
+	 *         number of constants
+	 */
+	static int bitsFor(int constants) {
+		return constants <= 1 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(constants - 1);
+	}
+
+	private static long fnv1a(long hash, String text) {
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			hash = (hash ^ (c & 0xFF)) * FNV_PRIME;
+			hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+		}
+		return hash;
+	}
+
+	public long getFingerprint() {
+		return _fingerprint;
+	}
+
+	public int getRecordBytes() {
+		return _recordBytes;
+	}
+
+	/**
+	 * @return the bytes of a buffer of the given number of records
+	 */
+	public int encodedLength(int count) {
+		return HEADER_BYTES + count * _recordBytes;
+	}
+
+	/**
+	 * @return the record as bit-fields in a long
+	 */
+	public long pack(Enum<?>... record) {
+		if (record.length != _types.length) {
+			throw new IllegalArgumentException("The record has " + record.length + " fields, " + _types.length + " expected");
+		}
+
+		long packed = 0;
+		for (int field = 0; field < record.length; field++) {
+			Enum<?> value = record[field];
+			if (value == null || value.getDeclaringClass() != _types[field]) {
+				throw new IllegalArgumentException("Field " + field + " must be a " + _types[field].getName());
+			}
+
+			packed |= (long) value.ordinal() << _shifts[field];
+		}
+		return packed;
+	}
+
+	/**
+	 * @return the ordinal of the given field of a packed record
+	 */
+	public int ordinal(long packed, int field) {
+		return (int) ((packed >>> _shifts[field]) & ((1L << _bits[field]) - 1));
+	}
+
+	/**
+	 * Copies the values of a packed record into the given array
+	 */
+	public void unpack(long packed, Enum<?>[] into) {
+		for (int field = 0; field < _types.length; field++) {
+			into[field] = _constants[field][checkedOrdinal(packed, field)];
+		}
+	}
+
+	/**
+	 * @return the ordinal of the given field of a decoded record, checked
+	 *         against the constants of its type
+	 */
+	private int checkedOrdinal(long packed, int field) {
+		int ordinal = ordinal(packed, field);
+		if (ordinal >= _constants[field].length) {
+			throw new IllegalArgumentException("Invalid ordinal " + ordinal + " of " + _types[field].getName());
+		}
+		return ordinal;
+	}
+
+	/**
+	 * Writes the header and the records at the position of the buffer
+	 */
+	public void encodeAll(Enum<?>[][] records, ByteBuffer out) {
+		out.putInt(MAGIC);
+		out.putLong(_fingerprint);
+		out.putInt(records.length);
+
+		for (Enum<?>[] record : records) {
+			long packed = pack(record);
+			for (int b = 0; b < _recordBytes; b++) {
+				out.put((byte) (packed >>> (b * 8)));
+			}
+		}
+	}
+
+	/**
+	 * Reads the header and the records at the position of the buffer
+	 *
+	 * @throws IllegalArgumentException
+	 *           when the records were encoded with another schema
+	 */
+	public Enum<?>[][] decodeAll(ByteBuffer in) {
+		int count = readHeader(in);
+
+		Enum<?>[][] records = new Enum<?>[count][_types.length];
+		for (int i = 0; i < count; i++) {
+			unpack(readRecord(in), records[i]);
+		}
+		return records;
+	}
+
+	/**
+	 * Reads the header and the records at the position of the buffer as columns
+	 * of ordinals, one per field, without creating a record array
+	 *
+	 * @return the number of records
+	 */
+	public int decodeOrdinals(ByteBuffer in, int[][] columns) {
+		int count = readHeader(in);
+		if (columns.length != _types.length) {
+			throw new IllegalArgumentException("A column per field is needed");
+		}
+		for (int[] column : columns) {
+			if (column.length < count) {
+				throw new IllegalArgumentException("The columns need room for " + count + " records");
+			}
+		}
+
+		for (int i = 0; i < count; i++) {
+			long packed = readRecord(in);
+			for (int field = 0; field < columns.length; field++) {
+				columns[field][i] = checkedOrdinal(packed, field);
+			}
+		}
+		return count;
+	}
+
+	private int readHeader(ByteBuffer in) {
+		try {
+			if (in.getInt() != MAGIC) {
+				throw new IllegalArgumentException("Not an enum record buffer");
+			}
+
+			long fingerprint = in.getLong();
+			if (fingerprint != _fingerprint) {
+				throw new IllegalArgumentException(String.format(
+						"The records were encoded with schema %016x, this codec reads %016x", fingerprint, _fingerprint));
+			}
+
+			int count = in.getInt();
+			if (count < 0 || (long) count * _recordBytes > in.remaining()) {
+				throw new IllegalArgumentException("Truncated buffer of " + count + " records");
+			}
+			return count;
+		} catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException("Truncated header", e);
+		}
+	}
+
+	private long readRecord(ByteBuffer in) {
+		long packed = 0;
+		for (int b = 0; b < _recordBytes; b++) {
+			packed |= (in.get() & 0xFFL) << (b * 8);
+		}
+		return packed;
+	}
+
+	/**
+	 * @return the set as a bit per constant, the bit of a constant is its
+	 *         ordinal
+	 */
+	public static <E extends Enum<E>> long toBitmask(EnumSet<E> set) {
+		long bitmask = 0;
+		for (E constant : set) {
+			if (constant.ordinal() >= Long.SIZE) {
+				throw new IllegalArgumentException(constant.getDeclaringClass() + " has more than 64 constants");
+			}
+			bitmask |= 1L << constant.ordinal();
+		}
+		return bitmask;
+	}
+
+	public static <E extends Enum<E>> EnumSet<E> fromBitmask(Class<E> type, long bitmask) {
+		EnumSet<E> set = EnumSet.noneOf(type);
+		E[] constants = type.getEnumConstants();
+		for (long bits = bitmask; bits != 0; bits &= bits - 1) {
+			int ordinal = Long.numberOfTrailingZeros(bits);
+			if (ordinal >= constants.length) {
+				throw new IllegalArgumentException("Bit " + ordinal + " is not a constant of " + type.getName());
+			}
+			set.add(constants[ordinal]);
+		}
+		return set;
+	}
+}
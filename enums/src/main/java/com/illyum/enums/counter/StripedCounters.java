@@ -0,0 +1,124 @@
+package com.illyum.enums.counter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed number of long counters numbered from zero, spread over stripes so
+ * that threads counting at the same time rarely write the same cache line, as
+ * LongAdder does for a single value.
+ *
+ * Every stripe holds a cell per counter, stripes are padded to whole cache
+ * lines and separated by one. A thread counts in the stripe of its probe,
+ * seeded from its id, and when a compare-and-set finds its cell contended it
+ * moves to another stripe for the following updates, so threads that collide
+ * spread out. Reading a counter sums its cells, so it costs a cell per stripe
+ * while counting costs a rarely contended atomic add
+ */
+final class StripedCounters {
+	private static final int LONGS_PER_LINE = 8;
+
+	// the probe of each thread, shared by every table, never zero
+	private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(
+			() -> new int[] { (int) ((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) >>> 32) | 1 });
+
+	private final AtomicLongArray _cells;
+	private final int _counters;
+	private final int _stride;
+	private final int _stripeMask;
+
+	StripedCounters(int counters, int stripes) {
+		if (counters < 1 || stripes < 1 || Integer.bitCount(stripes) != 1) {
+			throw new IllegalArgumentException("Counters and a power of two of stripes are needed");
+		}
+
+		_counters = counters;
+		_stride = (counters + LONGS_PER_LINE - 1) / LONGS_PER_LINE * LONGS_PER_LINE + LONGS_PER_LINE;
+		_stripeMask = stripes - 1;
+		// a line of padding before the first stripe too
+		_cells = new AtomicLongArray(LONGS_PER_LINE + stripes * _stride);
+	}
+
+	/**
+	 * @return the default number of stripes, a power of two above the number of
+	 *         processors
+	 */
+	static int defaultStripes() {
+		return Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+	}
+
+	int counters() {
+		return _counters;
+	}
+
+	void add(int counter, long delta) {
+		int[] probe = PROBE.get();
+		int cell = cell(probe[0], counter);
+		long value = _cells.get(cell);
+
+		if (!_cells.compareAndSet(cell, value, value + delta)) {
+			probe[0] = rehash(probe[0]);
+			_cells.getAndAdd(cell(probe[0], counter), delta);
+		}
+	}
+
+	private int cell(int probe, int counter) {
+		return LONGS_PER_LINE + (probe & _stripeMask) * _stride + counter;
+	}
+
+	/**
+	 * @return the following value of a xorshift generator, never zero
+	 */
+	private static int rehash(int probe) {
+		probe ^= probe << 13;
+		probe ^= probe >>> 17;
+		probe ^= probe << 5;
+		return probe;
+	}
+
+	long get(int counter) {
+		long sum = 0;
+		for (int cell = LONGS_PER_LINE + counter; cell < _cells.length(); cell += _stride) {
+			sum += _cells.get(cell);
+		}
+		return sum;
+	}
+
+	/**
+	 * Copies every counter into the given array, the counters being updated
+	 * meanwhile may or may not include the updates
+	 */
+	void snapshot(long[] into) {
+		if (into.length < _counters) {
+			throw new IllegalArgumentException("The snapshot needs room for " + _counters + " counters");
+		}
+
+		for (int counter = 0; counter < _counters; counter++) {
+			into[counter] = get(counter);
+		}
+	}
+
+	/**
+	 * Sets every counter to zero, the updates made meanwhile may be lost
+	 */
+	void reset() {
+		for (int cell = 0; cell < _cells.length(); cell++) {
+			_cells.set(cell, 0);
+		}
+	}
+
+	/**
+	 * Adds the counters of other to these
+	 */
+	void merge(StripedCounters other) {
+		if (other._counters != _counters) {
+			throw new IllegalArgumentException("Only tables of the same counters may be merged");
+		}
+
+		for (int counter = 0; counter < _counters; counter++) {
+			long value = other.get(counter);
+			if (value != 0) {
+				add(counter, value);
+			}
+		}
+	}
+}
@@ -0,0 +1,247 @@
+package com.illyum.enums.expression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.illyum.enums.Operation;
+
+/**
+ * An Expression flattened into postfix code run by a small stack machine, so
+ * repeated evaluations walk an int array instead of a tree.
+ *
+ * Each instruction keeps its kind in the low two bits and its operand above
+ * them: the index of a constant, of a variable or the ordinal of an
+ * Operation. Variables are numbered in order of first appearance, values are
+ * given in that order.
+ *
+ * Compiled expressions are immutable and may be shared by threads
+ */
+public class CompiledExpression {
+	private static final int CONSTANT = 0;
+	private static final int VARIABLE = 1;
+	private static final int APPLY = 2;
+
+	private static final Operation[] OPERATIONS = Operation.values();
+
+	// rows evaluated at a time by evaluateColumns, so the stack stays in cache
+	private static final int CHUNK_ROWS = 1024;
+
+	private final int[] _code;
+	private final double[] _constants;
+	private final List<String> _variables;
+	private final int _maxDepth;
+
+	private CompiledExpression(int[] code, double[] constants, List<String> variables, int maxDepth) {
+		_code = code;
+		_constants = constants;
+		_variables = Collections.unmodifiableList(variables);
+		_maxDepth = maxDepth;
+	}
+
+	/**
+	 * @return the names of the variables, in the order their values are given
+	 */
+	public List<String> getVariables() {
+		return _variables;
+	}
+
+	public int getInstructionCount() {
+		return _code.length;
+	}
+
+	/**
+	 * @param values
+	 *          the value of each variable, in the order of getVariables()
+	 */
+	public double evaluate(double... values) {
+		checkArity(values.length);
+		return run(values, new double[_maxDepth]);
+	}
+
+	public double evaluate(Map<String, Double> bindings) {
+		double[] values = new double[_variables.size()];
+		for (int i = 0; i < values.length; i++) {
+			Double value = bindings.get(_variables.get(i));
+			if (value == null) {
+				throw new IllegalArgumentException("No value for " + _variables.get(i));
+			}
+			values[i] = value;
+		}
+
+		return run(values, new double[_maxDepth]);
+	}
+
+	/**
+	 * Evaluates every row of bindings with a single stack
+	 *
+	 * @param rows
+	 *          the values of the variables of each evaluation
+	 * @param out
+	 *          receives the result of each row
+	 */
+	public void evaluateAll(double[][] rows, double[] out) {
+		if (out.length < rows.length) {
+			throw new IllegalArgumentException("The output has room for " + out.length + " of " + rows.length + " rows");
+		}
+
+		double[] stack = new double[_maxDepth];
+		for (int row = 0; row < rows.length; row++) {
+			checkArity(rows[row].length);
+			out[row] = run(rows[row], stack);
+		}
+	}
+
+	/**
+	 * Evaluates the rows a column at a time: each instruction runs over a chunk
+	 * of rows with the bulk Operation.apply, instead of once per row
+	 *
+	 * @param columns
+	 *          the values of each variable, in the order of getVariables()
+	 * @param out
+	 *          receives the result of each row, its length is the number of rows
+	 */
+	public void evaluateColumns(double[][] columns, double[] out) {
+		checkArity(columns.length);
+		int rows = out.length;
+		for (double[] column : columns) {
+			if (column.length < rows) {
+				throw new IllegalArgumentException("Every column must have " + rows + " rows at least");
+			}
+		}
+
+		double[][] stack = new double[_maxDepth][Math.min(CHUNK_ROWS, rows)];
+		for (int start = 0; start < rows; start += CHUNK_ROWS) {
+			int length = Math.min(CHUNK_ROWS, rows - start);
+			int top = 0;
+
+			for (int instruction : _code) {
+				int operand = instruction >>> 2;
+				switch (instruction & 3) {
+					case CONSTANT:
+						Arrays.fill(stack[top++], 0, length, _constants[operand]);
+						break;
+					case VARIABLE:
+						System.arraycopy(columns[operand], start, stack[top++], 0, length);
+						break;
+					default:
+						top--;
+						OPERATIONS[operand].apply(stack[top - 1], stack[top], stack[top - 1], length);
+				}
+			}
+
+			System.arraycopy(stack[0], 0, out, start, length);
+		}
+	}
+
+	private void checkArity(int values) {
+		if (values != _variables.size()) {
+			throw new IllegalArgumentException(
+					"The expression has " + _variables.size() + " variables, " + values + " values were given");
+		}
+	}
+
+	private double run(double[] values, double[] stack) {
+		int top = 0;
+
+		for (int instruction : _code) {
+			int operand = instruction >>> 2;
+			switch (instruction & 3) {
+				case CONSTANT:
+					stack[top++] = _constants[operand];
+					break;
+				case VARIABLE:
+					stack[top++] = values[operand];
+					break;
+				default:
+					top--;
+					stack[top - 1] = OPERATIONS[operand].apply(stack[top - 1], stack[top]);
+			}
+		}
+
+		return stack[0];
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder postfix = new StringBuilder();
+		for (int instruction : _code) {
+			if (postfix.length() > 0) {
+				postfix.append(' ');
+			}
+
+			int operand = instruction >>> 2;
+			switch (instruction & 3) {
+				case CONSTANT:
+					postfix.append(_constants[operand]);
+					break;
+				case VARIABLE:
+					postfix.append(_variables.get(operand));
+					break;
+				default:
+					postfix.append(OPERATIONS[operand]);
+			}
+		}
+		return postfix.toString();
+	}
+
+	/**
+	 * Collects the instructions while an Expression tree is walked in postfix
+	 * order
+	 */
+	static class Compiler {
+		private int[] _code = new int[16];
+		private int _size;
+		private final List<Double> _constants = new ArrayList<Double>();
+		private final List<String> _variables = new ArrayList<String>();
+		private int _depth;
+		private int _maxDepth;
+
+		void constant(double value) {
+			int index = _constants.indexOf(value);
+			if (index < 0) {
+				index = _constants.size();
+				_constants.add(value);
+			}
+			push(CONSTANT, index);
+		}
+
+		void variable(String name) {
+			int index = _variables.indexOf(name);
+			if (index < 0) {
+				index = _variables.size();
+				_variables.add(name);
+			}
+			push(VARIABLE, index);
+		}
+
+		void apply(Operation operation) {
+			emit(APPLY, operation.ordinal());
+			_depth--;
+		}
+
+		private void push(int kind, int operand) {
+			emit(kind, operand);
+			_depth++;
+			_maxDepth = Math.max(_maxDepth, _depth);
+		}
+
+		private void emit(int kind, int operand) {
+			if (_size == _code.length) {
+				_code = Arrays.copyOf(_code, _size * 2);
+			}
+			_code[_size++] = operand << 2 | kind;
+		}
+
+		CompiledExpression compile() {
+			double[] constants = new double[_constants.size()];
+			for (int i = 0; i < constants.length; i++) {
+				constants[i] = _constants.get(i);
+			}
+
+			return new CompiledExpression(Arrays.copyOf(_code, _size), constants, _variables, _maxDepth);
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package com.illyum.enums.expression;
+
+import java.util.Map;
+
+import com.illyum.enums.Operation;
+
+/**
+ * An arithmetic expression tree: numbers and variables combined with
+ * Operations. The tree evaluates a binding at a time, compile it to evaluate
+ * many bindings fast
+ */
+public abstract class Expression {
+
+	/**
+	 * @see ExpressionParser
+	 */
+	public static Expression parse(String formula) {
+		return new ExpressionParser(formula).parse();
+	}
+
+	public static Expression constant(double value) {
+		return new Constant(value);
+	}
+
+	public static Expression variable(String name) {
+		return new Variable(name);
+	}
+
+	public static Expression apply(Operation operation, Expression left, Expression right) {
+		return new Apply(operation, left, right);
+	}
+
+	/**
+	 * @throws IllegalArgumentException
+	 *           when a variable has no value
+	 */
+	public abstract double evaluate(Map<String, Double> bindings);
+
+	/**
+	 * @return the postfix form of this expression
+	 */
+	public CompiledExpression compile() {
+		CompiledExpression.Compiler compiler = new CompiledExpression.Compiler();
+		emit(compiler);
+		return compiler.compile();
+	}
+
+	abstract void emit(CompiledExpression.Compiler compiler);
+
+	private static class Constant extends Expression {
+		private final double _value;
+
+		Constant(double value) {
+			_value = value;
+		}
+
+		@Override
+		public double evaluate(Map<String, Double> bindings) {
+			return _value;
+		}
+
+		@Override
+		void emit(CompiledExpression.Compiler compiler) {
+			compiler.constant(_value);
+		}
+
+		@Override
+		public String toString() {
+			return _value == Math.rint(_value) && !Double.isInfinite(_value)
+					? String.valueOf((long) _value)
+					: String.valueOf(_value);
+		}
+	}
+
+	private static class Variable extends Expression {
+		private final String _name;
+
+		Variable(String name) {
+			if (name == null || name.isEmpty()) {
+				throw new IllegalArgumentException("A variable needs a name");
+			}
+
+			_name = name;
+		}
+
+		@Override
+		public double evaluate(Map<String, Double> bindings) {
+			Double value = bindings.get(_name);
+			if (value == null) {
+				throw new IllegalArgumentException("No value for " + _name);
+			}
+
+			return value;
+		}
+
+		@Override
+		void emit(CompiledExpression.Compiler compiler) {
+			compiler.variable(_name);
+		}
+
+		@Override
+		public String toString() {
+			return _name;
+		}
+	}
+
+	private static class Apply extends Expression {
+		private final Operation _operation;
+		private final Expression _left;
+		private final Expression _right;
+
+		Apply(Operation operation, Expression left, Expression right) {
+			if (operation == null || left == null || right == null) {
+				throw new IllegalArgumentException("An operation needs two operands");
+			}
+
+			_operation = operation;
+			_left = left;
+			_right = right;
+		}
+
+		@Override
+		public double evaluate(Map<String, Double> bindings) {
+			return _operation.apply(_left.evaluate(bindings), _right.evaluate(bindings));
+		}
+
+		@Override
+		void emit(CompiledExpression.Compiler compiler) {
+			_left.emit(compiler);
+			_right.emit(compiler);
+			compiler.apply(_operation);
+		}
+
+		@Override
+		public String toString() {
+			return "(" + _left + " " + _operation + " " + _right + ")";
+		}
+	}
+}
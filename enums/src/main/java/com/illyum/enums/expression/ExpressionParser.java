@@ -0,0 +1,115 @@
+package com.illyum.enums.expression;
+
+import com.illyum.enums.Operation;
+
+/**
+ * Parses infix formulas such as {@code price * (1 + tax) - discount / 2}.
+ *
+ * Numbers are decimal, variables are Java identifiers, the operations bind as
+ * usual and associate to the left, and a leading minus negates its operand.
+ * Malformed formulas throw IllegalArgumentException with the position of the
+ * error
+ */
+class ExpressionParser {
+	private final String _formula;
+	private int _position;
+
+	ExpressionParser(String formula) {
+		if (formula == null) {
+			throw new IllegalArgumentException("The formula is null");
+		}
+
+		_formula = formula;
+	}
+
+	Expression parse() {
+		Expression expression = parseOperations(1);
+		skipSpaces();
+		if (_position < _formula.length()) {
+			throw error("Unexpected '" + _formula.charAt(_position) + "'");
+		}
+
+		return expression;
+	}
+
+	/**
+	 * Parses operands joined by operations of the given precedence or higher
+	 */
+	private Expression parseOperations(int precedence) {
+		Expression left = parseOperand();
+
+		while (true) {
+			skipSpaces();
+			Operation operation = _position < _formula.length() ? Operation.fromSymbol(_formula.charAt(_position)) : null;
+			if (operation == null || operation.precedence() < precedence) {
+				return left;
+			}
+
+			_position++;
+			left = Expression.apply(operation, left, parseOperations(operation.precedence() + 1));
+		}
+	}
+
+	private Expression parseOperand() {
+		skipSpaces();
+		if (_position == _formula.length()) {
+			throw error("Missing operand");
+		}
+
+		char c = _formula.charAt(_position);
+		if (c == '(') {
+			_position++;
+			Expression expression = parseOperations(1);
+			skipSpaces();
+			if (_position == _formula.length() || _formula.charAt(_position) != ')') {
+				throw error("Missing ')'");
+			}
+			_position++;
+			return expression;
+		}
+
+		if (c == '-') {
+			_position++;
+			return Expression.apply(Operation.MINUS, Expression.constant(0), parseOperand());
+		}
+
+		if (Character.isDigit(c) || c == '.') {
+			return parseNumber();
+		}
+
+		if (Character.isJavaIdentifierStart(c)) {
+			int start = _position;
+			while (_position < _formula.length() && Character.isJavaIdentifierPart(_formula.charAt(_position))) {
+				_position++;
+			}
+			return Expression.variable(_formula.substring(start, _position));
+		}
+
+		throw error("Unexpected '" + c + "'");
+	}
+
+	private Expression parseNumber() {
+		int start = _position;
+		while (_position < _formula.length()
+				&& (Character.isDigit(_formula.charAt(_position)) || _formula.charAt(_position) == '.')) {
+			_position++;
+		}
+
+		try {
+			return Expression.constant(Double.parseDouble(_formula.substring(start, _position)));
+		} catch (NumberFormatException e) {
+			_position = start;
+			throw error("Invalid number");
+		}
+	}
+
+	private void skipSpaces() {
+		while (_position < _formula.length() && Character.isWhitespace(_formula.charAt(_position))) {
+			_position++;
+		}
+	}
+
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException(message + " at " + _position + " of \"" + _formula + "\"");
+	}
+}
@@ -0,0 +1,98 @@
+package com.illyum.enums.payroll;
+
+/**
+ * The days of the week of a payroll, with the strategy enum pattern: each day
+ * takes the overtime policy of its PayType.
+ *
+ * Pay is exact: worked time is given in minutes, rates in cents per hour and
+ * pay in cents, the unit of com.illyum.money.Money
+ */
+public enum PayrollDay {
+	MONDAY		(PayType.WEEKDAY),
+	TUESDAY		(PayType.WEEKDAY),
+	WEDNESDAY	(PayType.WEEKDAY),
+	THURSDAY	(PayType.WEEKDAY),
+	FRIDAY		(PayType.WEEKDAY),
+
+	SATURDAY	(PayType.WEEKEND),
+	SUNDAY		(PayType.WEEKEND);
+
+	private final PayType _payType;
+
+	private PayrollDay(PayType payType) {
+		_payType = payType;
+	}
+
+	public PayType payType() {
+		return _payType;
+	}
+
+	/**
+	 * @return the pay in cents, rounded half up
+	 */
+	public long pay(int minutesWorked, int centsPerHour) {
+		return _payType.pay(minutesWorked, centsPerHour);
+	}
+
+	/**
+	 * The strategy enum type
+	 */
+	public enum PayType {
+		WEEKDAY {
+			@Override
+			int overtimeMinutes(int minutesWorked) {
+				return minutesWorked <= MINUTES_PER_SHIFT ? 0 : minutesWorked - MINUTES_PER_SHIFT;
+			}
+
+			@Override
+			void overtimeMinutes(int[] minutesWorked, int[] rows, int count, int[] out) {
+				for (int i = 0; i < count; i++) {
+					out[i] = Math.max(0, minutesWorked[rows[i]] - MINUTES_PER_SHIFT);
+				}
+			}
+		},
+		WEEKEND {
+			@Override
+			int overtimeMinutes(int minutesWorked) {
+				return minutesWorked;
+			}
+
+			@Override
+			void overtimeMinutes(int[] minutesWorked, int[] rows, int count, int[] out) {
+				for (int i = 0; i < count; i++) {
+					out[i] = minutesWorked[rows[i]];
+				}
+			}
+		};
+
+		private static final int MINUTES_PER_SHIFT = 8 * 60;
+
+		/**
+		 * @return the minutes paid at half rate on top of the base pay
+		 */
+		abstract int overtimeMinutes(int minutesWorked);
+
+		/**
+		 * Computes the overtime minutes of the given rows at once, out receives
+		 * the overtime of rows[i] at i
+		 */
+		abstract void overtimeMinutes(int[] minutesWorked, int[] rows, int count, int[] out);
+
+		public long pay(int minutesWorked, int centsPerHour) {
+			return pay(minutesWorked, overtimeMinutes(minutesWorked), centsPerHour);
+		}
+
+		/**
+		 * The base pay plus half pay for overtime, in cents: (2 m + o) r / 120
+		 * rounded half up
+		 */
+		static long pay(int minutesWorked, int overtimeMinutes, int centsPerHour) {
+			if (minutesWorked < 0 || centsPerHour < 0) {
+				throw new IllegalArgumentException("Worked time and rate must not be negative");
+			}
+
+			long halfMinuteCents = (2L * minutesWorked + overtimeMinutes) * centsPerHour;
+			return (halfMinuteCents + 60) / 120;
+		}
+	}
+}
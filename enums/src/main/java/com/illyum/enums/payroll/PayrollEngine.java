@@ -0,0 +1,167 @@
+package com.illyum.enums.payroll;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Pays the rows of a Timesheet in parallel on a ForkJoinPool.
+ *
+ * Every task pays a slice of rows: it groups them by PayType first, so each
+ * strategy computes the overtime of its whole group in a single call instead
+ * of a virtual call per row, then applies the same integer formula to every
+ * row. Results are exact cents.
+ *
+ * Payrolls written to a file are paid a block of rows at a time, the next
+ * block is paid while the previous one is written
+ */
+public class PayrollEngine {
+	private static final PayrollDay.PayType[] PAY_TYPES = PayrollDay.PayType.values();
+	private static final PayrollDay[] DAYS = PayrollDay.values();
+
+	private static final int TASK_ROWS = 8 * 1024;
+	private static final int FILE_BLOCK_ROWS = 64 * 1024;
+
+	private final ForkJoinPool _pool;
+
+	public PayrollEngine() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	public PayrollEngine(ForkJoinPool pool) {
+		if (pool == null) {
+			throw new IllegalArgumentException("The engine needs a pool");
+		}
+
+		_pool = pool;
+	}
+
+	/**
+	 * @return the pay in cents of each row
+	 */
+	public long[] pay(Timesheet timesheet) {
+		long[] cents = new long[timesheet.size()];
+		_pool.invoke(new PayTask(timesheet, 0, timesheet.size(), cents, 0));
+		return cents;
+	}
+
+	/**
+	 * Writes a line per row, worker, day, minutes and pay in cents, to the given
+	 * file
+	 */
+	public PayrollSummary pay(Timesheet timesheet, Path file) throws IOException {
+		int rows = timesheet.size();
+		long[] centsByPayType = new long[PAY_TYPES.length];
+
+		try (Writer out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+			ForkJoinTask<?> next = block(timesheet, 0);
+
+			for (int start = 0; start < rows; start += FILE_BLOCK_ROWS) {
+				PayTask current = (PayTask) next;
+				current.join();
+				next = block(timesheet, start + FILE_BLOCK_ROWS);
+
+				for (int i = 0; i < current._to - current._from; i++) {
+					int row = current._from + i;
+					long cents = current._out[i];
+					PayrollDay day = DAYS[timesheet.days()[row]];
+					centsByPayType[day.payType().ordinal()] += cents;
+
+					out.write(Integer.toString(timesheet.workers()[row]));
+					out.write(',');
+					out.write(day.name());
+					out.write(',');
+					out.write(Integer.toString(timesheet.minutes()[row]));
+					out.write(',');
+					out.write(Long.toString(cents));
+					out.write('\n');
+				}
+			}
+		}
+
+		Map<PayrollDay.PayType, Long> summary = new EnumMap<PayrollDay.PayType, Long>(PayrollDay.PayType.class);
+		for (PayrollDay.PayType payType : PAY_TYPES) {
+			summary.put(payType, centsByPayType[payType.ordinal()]);
+		}
+		return new PayrollSummary(rows, summary);
+	}
+
+	/**
+	 * @return the task paying the block of rows starting at start, already
+	 *         submitted, null after the last block
+	 */
+	private ForkJoinTask<?> block(Timesheet timesheet, int start) {
+		if (start >= timesheet.size()) {
+			return null;
+		}
+
+		int end = Math.min(timesheet.size(), start + FILE_BLOCK_ROWS);
+		return _pool.submit(new PayTask(timesheet, start, end, new long[end - start], start));
+	}
+
+	private static class PayTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Timesheet _timesheet;
+		private final int _from;
+		private final int _to;
+		private final long[] _out;
+		private final int _outOffset;
+
+		/**
+		 * Pays the rows from, inclusive, to, exclusive, row r goes to out at
+		 * r - outOffset
+		 */
+		PayTask(Timesheet timesheet, int from, int to, long[] out, int outOffset) {
+			_timesheet = timesheet;
+			_from = from;
+			_to = to;
+			_out = out;
+			_outOffset = outOffset;
+		}
+
+		@Override
+		protected void compute() {
+			if (_to - _from > TASK_ROWS) {
+				int middle = (_from + _to) >>> 1;
+				invokeAll(
+						new PayTask(_timesheet, _from, middle, _out, _outOffset),
+						new PayTask(_timesheet, middle, _to, _out, _outOffset)
+				);
+				return;
+			}
+
+			byte[] days = _timesheet.days();
+			int[] minutes = _timesheet.minutes();
+			int[] centsPerHour = _timesheet.centsPerHour();
+			int length = _to - _from;
+
+			// group the rows by pay type
+			int[][] groups = new int[PAY_TYPES.length][length];
+			int[] counts = new int[PAY_TYPES.length];
+			for (int row = _from; row < _to; row++) {
+				int payType = DAYS[days[row]].payType().ordinal();
+				groups[payType][counts[payType]++] = row;
+			}
+
+			int[] overtime = new int[length];
+			for (PayrollDay.PayType payType : PAY_TYPES) {
+				int[] rows = groups[payType.ordinal()];
+				int count = counts[payType.ordinal()];
+
+				payType.overtimeMinutes(minutes, rows, count, overtime);
+				for (int i = 0; i < count; i++) {
+					int row = rows[i];
+					_out[row - _outOffset] = PayrollDay.PayType.pay(minutes[row], overtime[i], centsPerHour[row]);
+				}
+			}
+		}
+	}
+}
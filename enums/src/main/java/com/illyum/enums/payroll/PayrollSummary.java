@@ -0,0 +1,43 @@
+package com.illyum.enums.payroll;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Totals of a payroll run, in cents
+ */
+public class PayrollSummary {
+	private final long _rows;
+	private final long _totalCents;
+	private final Map<PayrollDay.PayType, Long> _centsByPayType;
+
+	public PayrollSummary(long rows, Map<PayrollDay.PayType, Long> centsByPayType) {
+		_rows = rows;
+		_centsByPayType = Collections.unmodifiableMap(new EnumMap<PayrollDay.PayType, Long>(centsByPayType));
+
+		long total = 0;
+		for (long cents : _centsByPayType.values()) {
+			total += cents;
+		}
+		_totalCents = total;
+	}
+
+	public long getRows() {
+		return _rows;
+	}
+
+	public long getTotalCents() {
+		return _totalCents;
+	}
+
+	public long getCents(PayrollDay.PayType payType) {
+		Long cents = _centsByPayType.get(payType);
+		return cents == null ? 0 : cents;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d rows, %d cents %s", _rows, _totalCents, _centsByPayType);
+	}
+}
@@ -0,0 +1,101 @@
+package com.illyum.enums.payroll;
+
+import java.util.Arrays;
+
+/**
+ * The worked days of a payroll kept as columns of primitives, a row per
+ * worker and day. Rows are appended, the timesheet is not thread-safe while it
+ * is filled
+ */
+public class Timesheet {
+	private static final PayrollDay[] DAYS = PayrollDay.values();
+
+	private int[] _workers;
+	private byte[] _days;
+	private int[] _minutes;
+	private int[] _centsPerHour;
+	private int _size;
+
+	public Timesheet() {
+		this(1024);
+	}
+
+	public Timesheet(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity must be positive");
+		}
+
+		_workers = new int[capacity];
+		_days = new byte[capacity];
+		_minutes = new int[capacity];
+		_centsPerHour = new int[capacity];
+	}
+
+	/**
+	 * @return the row of the worked day
+	 */
+	public int add(int worker, PayrollDay day, int minutesWorked, int centsPerHour) {
+		if (day == null || minutesWorked < 0 || centsPerHour < 0) {
+			throw new IllegalArgumentException("Invalid worked day of worker " + worker);
+		}
+
+		if (_size == _workers.length) {
+			int capacity = _size * 2;
+			_workers = Arrays.copyOf(_workers, capacity);
+			_days = Arrays.copyOf(_days, capacity);
+			_minutes = Arrays.copyOf(_minutes, capacity);
+			_centsPerHour = Arrays.copyOf(_centsPerHour, capacity);
+		}
+
+		_workers[_size] = worker;
+		_days[_size] = (byte) day.ordinal();
+		_minutes[_size] = minutesWorked;
+		_centsPerHour[_size] = centsPerHour;
+		return _size++;
+	}
+
+	public int size() {
+		return _size;
+	}
+
+	public int getWorker(int row) {
+		return _workers[checkRow(row)];
+	}
+
+	public PayrollDay getDay(int row) {
+		return DAYS[_days[checkRow(row)]];
+	}
+
+	public int getMinutes(int row) {
+		return _minutes[checkRow(row)];
+	}
+
+	public int getCentsPerHour(int row) {
+		return _centsPerHour[checkRow(row)];
+	}
+
+	private int checkRow(int row) {
+		if (row < 0 || row >= _size) {
+			throw new IndexOutOfBoundsException("Row " + row + " of " + _size);
+		}
+		return row;
+	}
+
+	// columns read by the engine, valid up to size()
+
+	int[] workers() {
+		return _workers;
+	}
+
+	byte[] days() {
+		return _days;
+	}
+
+	int[] minutes() {
+		return _minutes;
+	}
+
+	int[] centsPerHour() {
+		return _centsPerHour;
+	}
+}
@@ -0,0 +1,101 @@
+package com.illyum.enums;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import com.illyum.enums.counter.EnumCounters;
+import com.illyum.enums.counter.EnumPairCounters;
+import com.illyum.enums.payroll.PayrollDay;
+
+/**
+ * Counters keyed by enum constants are updated by many threads at the same
+ * time
+ */
+public class EnumCountersTest {
+
+	@Test
+	public void concurrentIncrementsAreNotLost() throws Exception {
+		// arrange
+		final EnumCounters<PayrollDay> counters = new EnumCounters<PayrollDay>(PayrollDay.class);
+		final int threads = 8;
+		final int increments = 100000;
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			final PayrollDay day = PayrollDay.values()[t % 2];
+			workers[t] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int i = 0; i < increments; i++) {
+						counters.increment(day);
+					}
+				}
+			};
+			workers[t].start();
+		}
+
+		// act
+		start.countDown();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		// assert
+		assertEquals(threads / 2 * increments, counters.get(PayrollDay.MONDAY));
+		assertEquals(threads / 2 * increments, counters.get(PayrollDay.TUESDAY));
+		assertEquals(0, counters.get(PayrollDay.SUNDAY));
+	}
+
+	@Test
+	public void snapshotResetAndMerge() {
+		// arrange
+		EnumCounters<Operation> counters = new EnumCounters<Operation>(Operation.class, 4);
+		EnumCounters<Operation> other = new EnumCounters<Operation>(Operation.class, 1);
+		counters.add(Operation.TIMES, 5);
+		other.increment(Operation.PLUS);
+		other.add(Operation.TIMES, 2);
+
+		// act
+		counters.merge(other);
+		long[] snapshot = counters.snapshot();
+		other.reset();
+
+		// assert
+		assertEquals(Arrays.toString(new long[] { 1, 0, 7, 0 }), Arrays.toString(snapshot));
+		assertEquals(Arrays.toString(new long[4]), Arrays.toString(other.snapshot()));
+		assertEquals("{+=1, -=0, *=7, /=0}", counters.toString());
+	}
+
+	@Test
+	public void pairsOfEnums() {
+		// arrange
+		EnumPairCounters<PayrollDay, Operation> counters =
+				new EnumPairCounters<PayrollDay, Operation>(PayrollDay.class, Operation.class);
+
+		// act
+		counters.increment(PayrollDay.MONDAY, Operation.MINUS);
+		counters.add(PayrollDay.SUNDAY, Operation.DIVIDE, 3);
+		counters.add(PayrollDay.SUNDAY, Operation.MINUS, 2);
+
+		// assert
+		assertEquals(1, counters.get(PayrollDay.MONDAY, Operation.MINUS));
+		assertEquals(5, counters.getRow(PayrollDay.SUNDAY));
+		assertEquals(3, counters.getColumn(Operation.MINUS));
+		assertEquals(3, counters.snapshot()[PayrollDay.SUNDAY.ordinal() * 4 + Operation.DIVIDE.ordinal()]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void stripesMustBeAPowerOfTwo() {
+		// act
+		new EnumCounters<Operation>(Operation.class, 3);
+	}
+}
@@ -0,0 +1,108 @@
+package com.illyum.enums;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+import com.illyum.enums.EnumsTest.Apple;
+import com.illyum.enums.EnumsTest.Orange;
+import com.illyum.enums.codec.EnumRecordCodec;
+import com.illyum.enums.payroll.PayrollDay;
+
+/**
+ * Records of enums are packed by ordinal instead of written by name
+ */
+public class EnumRecordCodecTest {
+	private static final Enum<?>[][] RECORDS = {
+			{ Apple.FUJI, Orange.BLOOD, PayrollDay.SUNDAY, Operation.DIVIDE },
+			{ Apple.GRANNY_SMITH, Orange.NAVEL, PayrollDay.MONDAY, Operation.PLUS },
+			{ Apple.PIPPIN, Orange.TEMPLE, PayrollDay.THURSDAY, Operation.TIMES }
+	};
+
+	private static EnumRecordCodec codec() {
+		return new EnumRecordCodec(Apple.class, Orange.class, PayrollDay.class, Operation.class);
+	}
+
+	@Test
+	public void fieldsTakeTheBitsOfTheirOrdinals() {
+		// act
+		EnumRecordCodec codec = codec();
+		long packed = codec.pack(RECORDS[0]);
+
+		// assert: 2 + 2 + 3 + 2 bits
+		assertEquals(2, codec.getRecordBytes());
+		assertEquals(0 | 2 << 2 | 6 << 4 | 3 << 7, packed);
+		assertEquals(PayrollDay.SUNDAY.ordinal(), codec.ordinal(packed, 2));
+	}
+
+	@Test
+	public void encodeAndDecodeAll() {
+		// arrange
+		EnumRecordCodec codec = codec();
+		ByteBuffer buffer = ByteBuffer.allocate(codec.encodedLength(RECORDS.length));
+
+		// act
+		codec.encodeAll(RECORDS, buffer);
+		buffer.flip();
+		Enum<?>[][] records = codec.decodeAll(buffer.duplicate());
+		int[][] ordinals = new int[4][RECORDS.length];
+		int count = codec.decodeOrdinals(buffer, ordinals);
+
+		// assert
+		assertEquals(EnumRecordCodec.HEADER_BYTES + 3 * 2, buffer.limit());
+		for (int i = 0; i < RECORDS.length; i++) {
+			assertArrayEquals(RECORDS[i], records[i]);
+		}
+		assertEquals(3, count);
+		assertEquals(Apple.PIPPIN.ordinal(), ordinals[0][2]);
+		assertEquals(Orange.BLOOD.ordinal(), ordinals[1][0]);
+		assertEquals(Operation.DIVIDE.ordinal(), ordinals[3][0]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void anotherSchemaIsRejected() {
+		// arrange
+		ByteBuffer buffer = ByteBuffer.allocate(codec().encodedLength(RECORDS.length));
+		codec().encodeAll(RECORDS, buffer);
+		buffer.flip();
+
+		// act
+		new EnumRecordCodec(Orange.class, Apple.class, PayrollDay.class, Operation.class).decodeAll(buffer);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void ordinalsPastTheConstantsAreRejected() {
+		// arrange: Apple has 3 constants in 2 bits, the first record gets ordinal 3
+		EnumRecordCodec codec = codec();
+		ByteBuffer buffer = ByteBuffer.allocate(codec.encodedLength(RECORDS.length));
+		codec.encodeAll(RECORDS, buffer);
+		buffer.put(EnumRecordCodec.HEADER_BYTES, (byte) (buffer.get(EnumRecordCodec.HEADER_BYTES) | 3));
+		buffer.flip();
+
+		// act
+		codec.decodeOrdinals(buffer, new int[4][RECORDS.length]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void fieldOfTheWrongType() {
+		// act
+		codec().pack(Orange.BLOOD, Apple.FUJI, PayrollDay.SUNDAY, Operation.PLUS);
+	}
+
+	@Test
+	public void enumSetAsBitmask() {
+		// arrange
+		EnumSet<PayrollDay> weekend = EnumSet.of(PayrollDay.SATURDAY, PayrollDay.SUNDAY);
+
+		// act
+		long bitmask = EnumRecordCodec.toBitmask(weekend);
+
+		// assert
+		assertEquals(0x60, bitmask);
+		assertEquals(weekend, EnumRecordCodec.fromBitmask(PayrollDay.class, bitmask));
+	}
+}
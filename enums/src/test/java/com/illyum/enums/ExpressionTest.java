@@ -0,0 +1,77 @@
+package com.illyum.enums;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.illyum.enums.expression.CompiledExpression;
+import com.illyum.enums.expression.Expression;
+
+/**
+ * Formulas are parsed into trees of Operations and compiled to postfix code
+ */
+public class ExpressionTest {
+	private static final double DELTA = 1e-9;
+
+	@Test
+	public void operationsBindAsUsual() {
+		// act
+		Expression expression = Expression.parse("1 + 2 * 3 - 8 / 4 / 2");
+
+		// assert
+		assertEquals("((1 + (2 * 3)) - ((8 / 4) / 2))", expression.toString());
+		assertEquals(6, expression.evaluate(new HashMap<String, Double>()), DELTA);
+	}
+
+	@Test
+	public void treeAndCompiledFormAgree() {
+		// arrange
+		Expression expression = Expression.parse("price * (1 + tax) - -discount / 2");
+		Map<String, Double> bindings = new HashMap<String, Double>();
+		bindings.put("price", 100.0);
+		bindings.put("tax", 0.16);
+		bindings.put("discount", 10.0);
+
+		// act
+		CompiledExpression compiled = expression.compile();
+
+		// assert
+		assertEquals(Arrays.asList("price", "tax", "discount"), compiled.getVariables());
+		assertEquals(121, expression.evaluate(bindings), DELTA);
+		assertEquals(121, compiled.evaluate(bindings), DELTA);
+		assertEquals(121, compiled.evaluate(100, 0.16, 10), DELTA);
+	}
+
+	@Test
+	public void compiledExpressionEvaluatesManyBindings() {
+		// arrange
+		CompiledExpression compiled = Expression.parse("x * x + y").compile();
+		double[][] rows = { { 1, 1 }, { 2, 0 }, { 3, -1 } };
+		double[] out = new double[rows.length];
+
+		// act
+		compiled.evaluateAll(rows, out);
+
+		// assert
+		assertEquals("x x * y +", compiled.toString());
+		assertEquals(2, out[0], DELTA);
+		assertEquals(4, out[1], DELTA);
+		assertEquals(8, out[2], DELTA);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void malformedFormula() {
+		// act
+		Expression.parse("(1 + 2");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unboundVariable() {
+		// act
+		Expression.parse("x + 1").evaluate(new HashMap<String, Double>());
+	}
+}
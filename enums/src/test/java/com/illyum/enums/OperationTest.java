@@ -0,0 +1,81 @@
+package com.illyum.enums;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.illyum.enums.expression.CompiledExpression;
+import com.illyum.enums.expression.Expression;
+
+/**
+ * The bulk apply of each Operation gives the same results as its scalar apply
+ */
+public class OperationTest {
+	private static final double DELTA = 1e-9;
+
+	@Test
+	public void bulkApplyAgreesWithScalarApply() {
+		// arrange
+		Random random = new Random(42);
+		double[] xs = new double[1000];
+		double[] ys = new double[1000];
+		for (int i = 0; i < xs.length; i++) {
+			xs[i] = random.nextDouble() * 100;
+			ys[i] = 1 + random.nextDouble() * 100;
+		}
+
+		for (Operation operation : Operation.values()) {
+			double[] out = new double[xs.length];
+
+			// act
+			operation.apply(xs, ys, out);
+
+			// assert
+			for (int i = 0; i < xs.length; i++) {
+				assertEquals(operation.apply(xs[i], ys[i]), out[i], 0);
+			}
+		}
+	}
+
+	@Test
+	public void outputMayBeAnOperand() {
+		// arrange
+		double[] xs = { 1, 2, 3 };
+
+		// act
+		Operation.TIMES.apply(xs, xs, xs);
+
+		// assert
+		assertEquals(9, xs[2], 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void operandsShorterThanTheOutput() {
+		// act
+		Operation.PLUS.apply(new double[1], new double[2], new double[2]);
+	}
+
+	@Test
+	public void columnsAreEvaluatedWithBulkOperations() {
+		// arrange
+		CompiledExpression compiled = Expression.parse("price * (1 + tax) - 2").compile();
+		int rows = 2500;
+		double[] prices = new double[rows];
+		double[] taxes = new double[rows];
+		for (int i = 0; i < rows; i++) {
+			prices[i] = i;
+			taxes[i] = i % 3 / 10.0;
+		}
+		double[] out = new double[rows];
+
+		// act
+		compiled.evaluateColumns(new double[][] { prices, taxes }, out);
+
+		// assert
+		for (int i = 0; i < rows; i++) {
+			assertEquals(compiled.evaluate(prices[i], taxes[i]), out[i], DELTA);
+		}
+	}
+}
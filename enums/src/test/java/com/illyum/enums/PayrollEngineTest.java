@@ -0,0 +1,78 @@
+package com.illyum.enums;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.illyum.enums.payroll.PayrollDay;
+import com.illyum.enums.payroll.PayrollEngine;
+import com.illyum.enums.payroll.PayrollSummary;
+import com.illyum.enums.payroll.Timesheet;
+
+/**
+ * The payroll is paid in exact cents, in bulk and in parallel
+ */
+public class PayrollEngineTest {
+	@Rule
+	public TemporaryFolder _folder = new TemporaryFolder();
+
+	@Test
+	public void overtimeByPayType() {
+		// act & assert
+		assertEquals(8000, PayrollDay.MONDAY.pay(8 * 60, 1000));
+		assertEquals(11000, PayrollDay.FRIDAY.pay(10 * 60, 1000));
+		assertEquals(15000, PayrollDay.SUNDAY.pay(10 * 60, 1000));
+		assertEquals(51, PayrollDay.TUESDAY.pay(3, 1010));
+	}
+
+	@Test
+	public void bulkPayAgreesWithDailyPay() {
+		// arrange
+		Random random = new Random(42);
+		Timesheet timesheet = new Timesheet();
+		PayrollDay[] days = PayrollDay.values();
+		for (int worker = 0; worker < 50000; worker++) {
+			timesheet.add(worker, days[random.nextInt(days.length)], random.nextInt(14 * 60), 700 + random.nextInt(5000));
+		}
+
+		// act
+		long[] cents = new PayrollEngine().pay(timesheet);
+
+		// assert
+		for (int row = 0; row < timesheet.size(); row++) {
+			assertEquals(
+					timesheet.getDay(row).pay(timesheet.getMinutes(row), timesheet.getCentsPerHour(row)),
+					cents[row]
+			);
+		}
+	}
+
+	@Test
+	public void payrollIsStreamedToAFile() throws Exception {
+		// arrange
+		Timesheet timesheet = new Timesheet(1);
+		for (int worker = 0; worker < 100000; worker++) {
+			timesheet.add(worker, worker % 2 == 0 ? PayrollDay.MONDAY : PayrollDay.SATURDAY, 9 * 60, 1000);
+		}
+		Path file = _folder.newFile().toPath();
+
+		// act
+		PayrollSummary summary = new PayrollEngine().pay(timesheet, file);
+
+		// assert
+		List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+		assertEquals(100000, lines.size());
+		assertEquals("0,MONDAY,540,9500", lines.get(0));
+		assertEquals("99999,SATURDAY,540,13500", lines.get(99999));
+		assertEquals(50000L * 9500, summary.getCents(PayrollDay.PayType.WEEKDAY));
+		assertEquals(50000L * (9500 + 13500), summary.getTotalCents());
+	}
+}
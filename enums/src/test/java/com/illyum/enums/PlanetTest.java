@@ -0,0 +1,74 @@
+package com.illyum.enums;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * The weight table of many masses on every planet, in memory and through
+ * files
+ */
+public class PlanetTest {
+	@Rule
+	public TemporaryFolder _folder = new TemporaryFolder();
+
+	private static double[] masses(int n) {
+		double[] masses = new double[n];
+		for (int i = 0; i < n; i++) {
+			masses[i] = 90 / Planet.EARTH.surfaceGravity() + i;
+		}
+		return masses;
+	}
+
+	@Test
+	public void weightTableAgreesWithSurfaceWeight() {
+		// arrange
+		double[] masses = masses(200000);
+
+		// act
+		double[] table = Planet.weightTable(masses);
+
+		// assert
+		assertEquals(Planet.values().length * masses.length, table.length);
+		assertEquals(90, table[Planet.EARTH.ordinal() * masses.length], 1e-9);
+		for (Planet planet : Planet.values()) {
+			for (int i = 0; i < masses.length; i += 997) {
+				assertEquals(planet.surfaceWeight(masses[i]), table[planet.ordinal() * masses.length + i], 0);
+			}
+		}
+	}
+
+	@Test
+	public void weightTableThroughMappedFiles() throws Exception {
+		// arrange
+		double[] masses = masses(100000);
+		ByteBuffer bytes = ByteBuffer.allocate(masses.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		bytes.asDoubleBuffer().put(masses);
+		Path massesFile = _folder.newFile().toPath();
+		Path weightsFile = _folder.newFile().toPath();
+		Files.write(massesFile, bytes.array());
+
+		// act
+		long n = Planet.weightTable(massesFile, weightsFile);
+
+		// assert
+		assertEquals(masses.length, n);
+		DoubleBuffer weights = ByteBuffer
+				.wrap(Files.readAllBytes(weightsFile))
+				.order(ByteOrder.LITTLE_ENDIAN)
+				.asDoubleBuffer();
+		double[] expected = Planet.weightTable(masses);
+		assertEquals(expected.length, weights.remaining());
+		for (int i = 0; i < expected.length; i += 101) {
+			assertEquals(expected[i], weights.get(i), 0);
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package com.illyum.specification.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.illyum.specification.AbstractSpecification;
+import com.illyum.specification.Specification;
+import com.illyum.specification.example.Loan;
+import com.illyum.specification.loan.LoanMaxAmountSpecification;
+import com.illyum.specification.loan.LoanMinAmountSpecification;
+
+/**
+ * Throughput of isSatisfiedBy for AndSpecification chains by number of leaves,
+ * number of distinct leaf classes seen by the and call sites and rate of
+ * candidates that are not loans.
+ *
+ * Every leaf accepts every generated loan, so the whole chain is evaluated
+ * for loans while the non loans are rejected by the first leaf.
+ *
+ * <pre>
+ * mvn install -f ../specification
+ * mvn package
+ * java -jar target/benchmarks.jar SpecificationCompositionBenchmark -prof gc
+ * java -cp target/benchmarks.jar com.illyum.specification.benchmark.SpecificationCompositionBenchmark
+ * </pre>
+ *
+ * The main method runs the suite with the gc profiler and, when the inlining
+ * system property is true, prints the JIT inlining decisions of the forks
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SpecificationCompositionBenchmark {
+	private static final int CANDIDATES = 1024;
+
+	public enum Shape {
+		MONOMORPHIC(1),
+		BIMORPHIC(2),
+		MEGAMORPHIC(4);
+
+		private final int _leafClasses;
+
+		private Shape(int leafClasses) {
+			_leafClasses = leafClasses;
+		}
+	}
+
+	@Param({ "1", "2", "4", "8", "16", "32", "64" })
+	public int leaves;
+
+	@Param({ "MONOMORPHIC", "BIMORPHIC", "MEGAMORPHIC" })
+	public Shape shape;
+
+	@Param({ "0", "10", "50" })
+	public int nonLoanPercent;
+
+	private Specification _specification;
+	private Object[] _candidates;
+
+	@Setup
+	public void setUp() {
+		_specification = leaf(0);
+		for (int i = 1; i < leaves; i++) {
+			_specification = _specification.and(leaf(i));
+		}
+
+		Random random = new Random(42);
+		_candidates = new Object[CANDIDATES];
+		for (int i = 0; i < CANDIDATES; i++) {
+			_candidates[i] = random.nextInt(100) < nonLoanPercent
+					? new Object()
+					: new Loan(1 + random.nextInt(1000));
+		}
+	}
+
+	private Specification leaf(int index) {
+		switch (index % shape._leafClasses) {
+			case 0:
+				return new LoanMaxAmountSpecification(Integer.MAX_VALUE);
+			case 1:
+				return new LoanMinAmountSpecification(0);
+			case 2:
+				return new LoanPositiveAmountSpecification();
+			default:
+				return new LoanNotBlacklistedSpecification();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CANDIDATES)
+	public void isSatisfiedBy(Blackhole blackhole) {
+		Specification specification = _specification;
+		for (Object candidate : _candidates) {
+			blackhole.consume(specification.isSatisfiedBy(candidate));
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		ChainedOptionsBuilder options = new OptionsBuilder()
+				.include(SpecificationCompositionBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class);
+
+		if (Boolean.getBoolean("inlining")) {
+			options.jvmArgsAppend("-XX:+UnlockDiagnosticVMOptions", "-XX:+PrintInlining");
+		}
+
+		new Runner(options.build()).run();
+	}
+
+	/**
+	 * Extra leaf classes that make the and call sites megamorphic
+	 */
+	private static class LoanPositiveAmountSpecification extends AbstractSpecification {
+		@Override
+		public boolean isSatisfiedBy(Object candidate) {
+			return candidate instanceof Loan && ((Loan) candidate).getAmount() > 0;
+		}
+	}
+
+	private static class LoanNotBlacklistedSpecification extends AbstractSpecification {
+		@Override
+		public boolean isSatisfiedBy(Object candidate) {
+			return candidate instanceof Loan && ((Loan) candidate).getAmount() != -1;
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package com.illyum.specification.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Thread-safe client of a LoanValidationServer running on the same host.
+ *
+ * Connections are opened on demand up to the pool size and reused by the
+ * following calls; a call made when every connection is busy waits for one.
+ * A connection that fails is discarded
+ */
+public class LoanValidationClient implements Closeable {
+	/**
+	 * Bytes of responses a connection may have pending before the client reads
+	 * them, well below what the socket buffers hold, so the server never blocks
+	 * writing while the client blocks writing too
+	 */
+	static final int RESPONSE_WINDOW = 64 * 1024;
+
+	private final InetSocketAddress _address;
+	private final BlockingQueue<Connection> _idle;
+	private final Semaphore _permits;
+	private final List<Connection> _opened = new ArrayList<Connection>();
+
+	private volatile boolean _closed;
+
+	public LoanValidationClient(int port, int poolSize) {
+		if (poolSize < 1) {
+			throw new IllegalArgumentException("The pool needs a connection at least");
+		}
+
+		_address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+		_idle = new ArrayBlockingQueue<Connection>(poolSize);
+		_permits = new Semaphore(poolSize);
+	}
+
+	/**
+	 * @return whether each loan amount is valid
+	 */
+	public boolean[] validate(int[] amounts) throws IOException {
+		return validatePipelined(Collections.singletonList(amounts)).get(0);
+	}
+
+	/**
+	 * Writes the batches ahead of their responses, so the round trip is paid
+	 * once for many of them. The responses not read yet are kept under
+	 * RESPONSE_WINDOW bytes, past it the client reads before writing more;
+	 * a batch is always sent when nothing else is pending
+	 */
+	public List<boolean[]> validatePipelined(List<int[]> batches) throws IOException {
+		Connection connection = borrow();
+		boolean healthy = false;
+
+		try {
+			int firstRequestId = connection._nextRequestId;
+			List<boolean[]> results = new ArrayList<boolean[]>(batches.size());
+			long pendingBytes = 0;
+
+			for (int[] amounts : batches) {
+				int responseBytes = responseBytes(amounts);
+				while (results.size() < connection._nextRequestId - firstRequestId
+						&& pendingBytes + responseBytes > RESPONSE_WINDOW) {
+					connection._out.flush();
+					results.add(LoanValidationProtocol.readResponse(connection._in, firstRequestId + results.size()));
+					pendingBytes -= responseBytes(batches.get(results.size() - 1));
+				}
+
+				LoanValidationProtocol.writeRequest(connection._out, connection._nextRequestId++, amounts);
+				pendingBytes += responseBytes;
+			}
+			connection._out.flush();
+
+			while (results.size() < batches.size()) {
+				results.add(LoanValidationProtocol.readResponse(connection._in, firstRequestId + results.size()));
+			}
+
+			healthy = true;
+			return results;
+		} finally {
+			release(connection, healthy);
+		}
+	}
+
+	private static int responseBytes(int[] amounts) {
+		return 12 + amounts.length;
+	}
+
+	private Connection borrow() throws IOException {
+		if (_closed) {
+			throw new IOException("The client is closed");
+		}
+
+		try {
+			_permits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for a connection", e);
+		}
+
+		Connection connection = _idle.poll();
+		if (connection != null) {
+			return connection;
+		}
+
+		try {
+			connection = new Connection(_address);
+		} catch (IOException e) {
+			_permits.release();
+			throw e;
+		}
+
+		synchronized (_opened) {
+			_opened.add(connection);
+		}
+		return connection;
+	}
+
+	private void release(Connection connection, boolean healthy) {
+		if (healthy && !_closed) {
+			_idle.add(connection);
+		} else {
+			connection.close();
+			synchronized (_opened) {
+				_opened.remove(connection);
+			}
+		}
+
+		_permits.release();
+	}
+
+	@Override
+	public void close() {
+		_closed = true;
+
+		synchronized (_opened) {
+			for (Connection connection : _opened) {
+				connection.close();
+			}
+			_opened.clear();
+		}
+		_idle.clear();
+	}
+
+	private static class Connection {
+		final Socket _socket;
+		final DataInputStream _in;
+		final DataOutputStream _out;
+		int _nextRequestId;
+
+		Connection(InetSocketAddress address) throws IOException {
+			_socket = new Socket();
+			try {
+				_socket.setTcpNoDelay(true);
+				_socket.connect(address);
+				_in = new DataInputStream(new BufferedInputStream(_socket.getInputStream()));
+				_out = new DataOutputStream(new BufferedOutputStream(_socket.getOutputStream()));
+			} catch (IOException e) {
+				_socket.close();
+				throw e;
+			}
+		}
+
+		void close() {
+			try {
+				_socket.close();
+			} catch (IOException e) {
+				// nothing else can be done with a broken connection
+			}
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package com.illyum.specification.server;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures the throughput and the latency of a loan validation server on the
+ * loopback interface.
+ *
+ * Every worker sends its calls one after the other, each call pipelines a
+ * number of batches of random loan amounts. The latency is measured per call
+ */
+public class LoanValidationLoadGenerator {
+	private final int _port;
+	private final int _workers;
+	private final int _callsPerWorker;
+	private final int _batchSize;
+	private final int _pipelineDepth;
+
+	public LoanValidationLoadGenerator(int port, int workers, int callsPerWorker, int batchSize, int pipelineDepth) {
+		_port = port;
+		_workers = workers;
+		_callsPerWorker = callsPerWorker;
+		_batchSize = batchSize;
+		_pipelineDepth = pipelineDepth;
+	}
+
+	public Report run() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(_workers);
+
+		try (LoanValidationClient client = new LoanValidationClient(_port, _workers)) {
+			List<Future<long[]>> workers = new ArrayList<Future<long[]>>();
+			long start = System.nanoTime();
+
+			for (int w = 0; w < _workers; w++) {
+				final long seed = w;
+				workers.add(executor.submit(() -> work(client, new Random(seed))));
+			}
+
+			long[] latencies = new long[_workers * _callsPerWorker];
+			int position = 0;
+			for (Future<long[]> worker : workers) {
+				long[] workerLatencies = worker.get();
+				System.arraycopy(workerLatencies, 0, latencies, position, workerLatencies.length);
+				position += workerLatencies.length;
+			}
+
+			long elapsed = System.nanoTime() - start;
+			return new Report((long) latencies.length * _pipelineDepth * _batchSize, elapsed, latencies);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private long[] work(LoanValidationClient client, Random random) throws IOException {
+		List<int[]> batches = new ArrayList<int[]>(_pipelineDepth);
+		for (int b = 0; b < _pipelineDepth; b++) {
+			batches.add(new int[_batchSize]);
+		}
+
+		long[] latencies = new long[_callsPerWorker];
+		for (int call = 0; call < _callsPerWorker; call++) {
+			for (int[] batch : batches) {
+				for (int i = 0; i < batch.length; i++) {
+					batch[i] = random.nextInt(200);
+				}
+			}
+
+			long start = System.nanoTime();
+			client.validatePipelined(batches);
+			latencies[call] = System.nanoTime() - start;
+		}
+
+		return latencies;
+	}
+
+	public static class Report {
+		private final long _loans;
+		private final long _elapsedNanos;
+		private final long[] _sortedLatencies;
+
+		Report(long loans, long elapsedNanos, long[] latencies) {
+			_loans = loans;
+			_elapsedNanos = elapsedNanos;
+			_sortedLatencies = latencies.clone();
+			Arrays.sort(_sortedLatencies);
+		}
+
+		public long getLoans() {
+			return _loans;
+		}
+
+		public double getLoansPerSecond() {
+			return _loans * 1e9 / _elapsedNanos;
+		}
+
+		/**
+		 * @return the latency of a call in nanoseconds at the given percentile
+		 */
+		public long getLatencyPercentile(double percentile) {
+			if (_sortedLatencies.length == 0) {
+				return 0;
+			}
+
+			int index = (int) Math.ceil(percentile / 100 * _sortedLatencies.length) - 1;
+			return _sortedLatencies[Math.max(0, Math.min(index, _sortedLatencies.length - 1))];
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+					"%d loans, %.0f loans/s, call latency p50 %d us, p99 %d us, p99.9 %d us",
+					_loans,
+					getLoansPerSecond(),
+					getLatencyPercentile(50) / 1000,
+					getLatencyPercentile(99) / 1000,
+					getLatencyPercentile(99.9) / 1000
+			);
+		}
+	}
+
+	/**
+	 * @param args
+	 *          port [workers calls-per-worker batch-size pipeline-depth]
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1) {
+			System.err.println("usage: port [workers calls-per-worker batch-size pipeline-depth]");
+			return;
+		}
+
+		LoanValidationLoadGenerator generator = new LoanValidationLoadGenerator(
+				Integer.parseInt(args[0]),
+				args.length > 1 ? Integer.parseInt(args[1]) : 8,
+				args.length > 2 ? Integer.parseInt(args[2]) : 10000,
+				args.length > 3 ? Integer.parseInt(args[3]) : 64,
+				args.length > 4 ? Integer.parseInt(args[4]) : 4
+		);
+
+		System.out.println(generator.run());
+	}
+}
@@ -0,0 +1,117 @@
+package com.illyum.specification.server;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Length-prefixed binary frames exchanged by the loan validation server and
+ * its clients, every number is a big endian int32.
+ *
+ * <pre>
+ * request  := length requestId count amount{count}
+ * response := length requestId count outcome{count}   (outcome: int8, 1 accepted)
+ * </pre>
+ *
+ * The length counts the bytes that follow it. A client may write several
+ * requests before reading the responses, the server answers them in order
+ */
+public class LoanValidationProtocol {
+	public static final int MAX_BATCH = 64 * 1024;
+
+	private LoanValidationProtocol() {
+	}
+
+	public static void writeRequest(DataOutputStream out, int requestId, int[] amounts) throws IOException {
+		checkBatch(amounts.length);
+
+		out.writeInt(8 + 4 * amounts.length);
+		out.writeInt(requestId);
+		out.writeInt(amounts.length);
+		for (int amount : amounts) {
+			out.writeInt(amount);
+		}
+	}
+
+	/**
+	 * Reads a request into the given one, whose buffers grow as needed
+	 */
+	public static void readRequest(DataInputStream in, Request request) throws IOException {
+		int length = in.readInt();
+		int requestId = in.readInt();
+		int count = in.readInt();
+
+		if (count < 0 || count > MAX_BATCH || length != 8 + 4 * count) {
+			throw new IOException("Malformed request frame");
+		}
+
+		request.reset(requestId, count);
+		for (int i = 0; i < count; i++) {
+			request._amounts[i] = in.readInt();
+		}
+	}
+
+	public static void writeResponse(DataOutputStream out, Request request) throws IOException {
+		out.writeInt(8 + request._count);
+		out.writeInt(request._requestId);
+		out.writeInt(request._count);
+		for (int i = 0; i < request._count; i++) {
+			out.writeByte(request._outcomes[i] ? 1 : 0);
+		}
+	}
+
+	public static boolean[] readResponse(DataInputStream in, int expectedRequestId) throws IOException {
+		int length = in.readInt();
+		int requestId = in.readInt();
+		int count = in.readInt();
+
+		if (requestId != expectedRequestId || count < 0 || count > MAX_BATCH || length != 8 + count) {
+			throw new IOException("Malformed response frame");
+		}
+
+		boolean[] outcomes = new boolean[count];
+		for (int i = 0; i < count; i++) {
+			outcomes[i] = in.readByte() != 0;
+		}
+
+		return outcomes;
+	}
+
+	private static void checkBatch(int count) {
+		if (count > MAX_BATCH) {
+			throw new IllegalArgumentException("A batch holds at most " + MAX_BATCH + " loans");
+		}
+	}
+
+	/**
+	 * A request being served, reused for every request of a connection
+	 */
+	public static class Request {
+		private int _requestId;
+		private int _count;
+		private int[] _amounts = new int[16];
+		private boolean[] _outcomes = new boolean[16];
+
+		public int getCount() {
+			return _count;
+		}
+
+		public int getAmount(int index) {
+			return _amounts[index];
+		}
+
+		public void setOutcome(int index, boolean accepted) {
+			_outcomes[index] = accepted;
+		}
+
+		private void reset(int requestId, int count) {
+			_requestId = requestId;
+			_count = count;
+
+			if (_amounts.length < count) {
+				_amounts = new int[count];
+				_outcomes = new boolean[count];
+			}
+		}
+	}
+}
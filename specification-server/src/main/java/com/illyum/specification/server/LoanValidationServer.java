@@ -0,0 +1,181 @@
+package com.illyum.specification.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.illyum.specification.Specification;
+import com.illyum.specification.example.Loan;
+import com.illyum.specification.loan.SpecificationRepository;
+
+/**
+ * Exposes the loan specification to the local applications over a loopback
+ * TCP socket, see LoanValidationProtocol for the frames.
+ *
+ * Every connection is served by its own task of the connection executor.
+ * Responses are buffered and only flushed when no other request of the same
+ * connection is already waiting, so pipelined requests are answered with a
+ * few large writes instead of one per request. On Java 21 a
+ * Executors.newVirtualThreadPerTaskExecutor() serves thousands of
+ * connections without an OS thread each, the default cached pool is the
+ * closest option on older JVMs
+ */
+public class LoanValidationServer implements Closeable {
+	private final Specification _specification;
+	private final ExecutorService _connectionExecutor;
+	private final ServerSocket _serverSocket;
+	private final Set<Socket> _connections = ConcurrentHashMap.newKeySet();
+	private final Thread _acceptor;
+
+	private volatile boolean _closed;
+	private volatile IOException _acceptFailure;
+
+	/**
+	 * Listens on the loopback interface
+	 *
+	 * @param port
+	 *          0 picks any free port
+	 */
+	public LoanValidationServer(Specification specification, int port) throws IOException {
+		this(specification, port, Executors.newCachedThreadPool());
+	}
+
+	public LoanValidationServer(Specification specification, int port, ExecutorService connectionExecutor)
+			throws IOException {
+		_specification = specification;
+		_connectionExecutor = connectionExecutor;
+		_serverSocket = new ServerSocket();
+		_serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+
+		_acceptor = new Thread(this::accept, "loan-validation-acceptor");
+		_acceptor.start();
+	}
+
+	public int getPort() {
+		return _serverSocket.getLocalPort();
+	}
+
+	private void accept() {
+		while (!_closed) {
+			try {
+				final Socket socket = _serverSocket.accept();
+				socket.setTcpNoDelay(true);
+				_connections.add(socket);
+				if (_closed) {
+					socket.close();
+					return;
+				}
+
+				_connectionExecutor.execute(() -> serve(socket));
+			} catch (IOException e) {
+				// a server socket that cannot accept would fail again at once
+				if (!_closed) {
+					_acceptFailure = e;
+					shutdown();
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return the error that closed the server while accepting connections,
+	 *         null if there is none
+	 */
+	public IOException getAcceptFailure() {
+		return _acceptFailure;
+	}
+
+	public boolean isClosed() {
+		return _closed;
+	}
+
+	private void serve(Socket socket) {
+		LoanValidationProtocol.Request request = new LoanValidationProtocol.Request();
+
+		try (
+				Socket connection = socket;
+				DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()))
+		) {
+			while (true) {
+				LoanValidationProtocol.readRequest(in, request);
+
+				for (int i = 0; i < request.getCount(); i++) {
+					request.setOutcome(i, _specification.isSatisfiedBy(new Loan(request.getAmount(i))));
+				}
+				LoanValidationProtocol.writeResponse(out, request);
+
+				// more pipelined requests already arrived, they are answered in
+				// the same write
+				if (in.available() == 0) {
+					out.flush();
+				}
+			}
+		} catch (EOFException | SocketException e) {
+			// the client closed the connection
+		} catch (IOException e) {
+			// a malformed frame, the connection cannot be resynchronized so it is
+			// closed and the client sees it fail
+		} finally {
+			_connections.remove(socket);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		shutdown();
+
+		try {
+			_acceptor.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void shutdown() {
+		_closed = true;
+		closeQuietly(_serverSocket);
+
+		for (Socket socket : _connections) {
+			closeQuietly(socket);
+		}
+
+		_connectionExecutor.shutdownNow();
+	}
+
+	private static void closeQuietly(Closeable closeable) {
+		try {
+			closeable.close();
+		} catch (IOException e) {
+			// the server is closing, nothing else can be done with it
+		}
+	}
+
+	/**
+	 * Serves the loan specification of the SpecificationRepository
+	 *
+	 * @param args
+	 *          [port], 7070 by default
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+		Specification specification = new SpecificationRepository().getSpecificationForLoan();
+
+		LoanValidationServer server = new LoanValidationServer(specification, port);
+		System.out.println("Validating loans on 127.0.0.1:" + server.getPort());
+	}
+}
@@ -0,0 +1,98 @@
+package com.illyum.specification.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.illyum.specification.loan.SpecificationRepository;
+
+public class LoanValidationServerTest {
+	private LoanValidationServer _server;
+
+	@Before
+	public void start() throws Exception {
+		_server = new LoanValidationServer(new SpecificationRepository().getSpecificationForLoan(), 0);
+	}
+
+	@After
+	public void stop() throws Exception {
+		_server.close();
+	}
+
+	@Test
+	public void validate() throws Exception {
+		// arrange
+		try (LoanValidationClient client = new LoanValidationClient(_server.getPort(), 2)) {
+
+			// act
+			boolean[] outcomes = client.validate(new int[] { 99, 10, 75, 1000 });
+
+			// assert
+			assertEquals(Arrays.toString(new boolean[] { true, false, true, false }), Arrays.toString(outcomes));
+		}
+	}
+
+	@Test
+	public void pipelinedBatchesAreAnsweredInOrder() throws Exception {
+		// arrange
+		try (LoanValidationClient client = new LoanValidationClient(_server.getPort(), 1)) {
+
+			// act
+			List<boolean[]> outcomes = client.validatePipelined(Arrays.asList(
+					new int[] { 99 },
+					new int[] {},
+					new int[] { 10, 75 }
+			));
+
+			// assert
+			assertEquals(3, outcomes.size());
+			assertEquals(Arrays.toString(new boolean[] { true }), Arrays.toString(outcomes.get(0)));
+			assertEquals(Arrays.toString(new boolean[] {}), Arrays.toString(outcomes.get(1)));
+			assertEquals(Arrays.toString(new boolean[] { false, true }), Arrays.toString(outcomes.get(2)));
+		}
+	}
+
+	@Test(timeout = 30000)
+	public void pipelinedBatchesLargerThanTheSocketBuffers() throws Exception {
+		// arrange
+		int[] amounts = new int[LoanValidationProtocol.MAX_BATCH];
+		Arrays.fill(amounts, 99);
+		List<int[]> batches = new ArrayList<int[]>();
+		for (int i = 0; i < 200; i++) {
+			batches.add(amounts);
+		}
+
+		try (LoanValidationClient client = new LoanValidationClient(_server.getPort(), 1)) {
+
+			// act
+			List<boolean[]> outcomes = client.validatePipelined(batches);
+
+			// assert
+			assertEquals(200, outcomes.size());
+			for (boolean[] outcome : outcomes) {
+				assertEquals(amounts.length, outcome.length);
+				assertTrue(outcome[0] && outcome[amounts.length - 1]);
+			}
+		}
+	}
+
+	@Test
+	public void loadGenerator() throws Exception {
+		// arrange
+		LoanValidationLoadGenerator generator = new LoanValidationLoadGenerator(_server.getPort(), 4, 100, 16, 4);
+
+		// act
+		LoanValidationLoadGenerator.Report report = generator.run();
+
+		// assert
+		assertEquals(4 * 100 * 16 * 4, report.getLoans());
+		assertTrue(report.getLatencyPercentile(50) <= report.getLatencyPercentile(99));
+	}
+}
@@ -9,6 +9,14 @@ public class AndSpecification extends AbstractSpecification {
 		_other = other;
 	}
 
+	public Specification getOne() {
+		return _one;
+	}
+
+	public Specification getOther() {
+		return _other;
+	}
+
 	@Override
 	public boolean isSatisfiedBy(Object candidate) {
 		return _one.isSatisfiedBy(candidate) && 
@@ -0,0 +1,15 @@
+package com.illyum.specification.async;
+
+public abstract class AbstractAsyncSpecification implements AsyncSpecification {
+
+	@Override
+	public AsyncSpecification and(AsyncSpecification other) {
+		return new AndAsyncSpecification(this, other);
+	}
+
+	@Override
+	public AsyncSpecification or(AsyncSpecification other) {
+		return new OrAsyncSpecification(this, other);
+	}
+
+}
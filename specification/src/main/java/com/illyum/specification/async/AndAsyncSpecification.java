@@ -0,0 +1,24 @@
+package com.illyum.specification.async;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The other specification is only evaluated when the first one is satisfied
+ */
+public class AndAsyncSpecification extends AbstractAsyncSpecification {
+	private final AsyncSpecification _one;
+	private final AsyncSpecification _other;
+
+	public AndAsyncSpecification(AsyncSpecification one, AsyncSpecification other) {
+		_one = one;
+		_other = other;
+	}
+
+	@Override
+	public CompletableFuture<Boolean> isSatisfiedBy(final Object candidate) {
+		return _one.isSatisfiedBy(candidate).thenCompose(satisfied -> satisfied
+				? _other.isSatisfiedBy(candidate)
+				: CompletableFuture.completedFuture(Boolean.FALSE)
+		);
+	}
+}
@@ -0,0 +1,15 @@
+package com.illyum.specification.async;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Specification whose evaluation may wait for slow lookups without blocking
+ * the caller's thread
+ */
+public interface AsyncSpecification {
+ public CompletableFuture<Boolean> isSatisfiedBy(Object candidate);
+
+ public AsyncSpecification and(AsyncSpecification other);
+
+ public AsyncSpecification or(AsyncSpecification other);
+}
@@ -0,0 +1,43 @@
+package com.illyum.specification.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.illyum.specification.Specification;
+
+/**
+ * Adapts a synchronous specification.
+ *
+ * Without an executor the specification is evaluated in the caller's thread,
+ * which is the right choice for cheap in-memory checks such as the loan
+ * amount ones. Specifications that block should be given an executor so the
+ * caller never waits for them
+ */
+public class AsyncSpecificationAdapter extends AbstractAsyncSpecification {
+	private final Specification _specification;
+	private final Executor _executor;
+
+	public AsyncSpecificationAdapter(Specification specification) {
+		this(specification, null);
+	}
+
+	public AsyncSpecificationAdapter(Specification specification, Executor executor) {
+		_specification = specification;
+		_executor = executor;
+	}
+
+	@Override
+	public CompletableFuture<Boolean> isSatisfiedBy(final Object candidate) {
+		if (_executor == null) {
+			try {
+				return CompletableFuture.completedFuture(_specification.isSatisfiedBy(candidate));
+			} catch (RuntimeException e) {
+				CompletableFuture<Boolean> failed = new CompletableFuture<Boolean>();
+				failed.completeExceptionally(e);
+				return failed;
+			}
+		}
+
+		return CompletableFuture.supplyAsync(() -> _specification.isSatisfiedBy(candidate), _executor);
+	}
+}
@@ -0,0 +1,227 @@
+package com.illyum.specification.async;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Specification backed by a slow lookup that answers many candidates at once,
+ * e.g. a credit bureau or a blacklist table.
+ *
+ * The candidates evaluated concurrently are queued and sent to the lookup
+ * together, either when the batch is full or when the oldest candidate has
+ * waited the max delay. Lookups run on the given executor; on Java 21 an
+ * Executors.newVirtualThreadPerTaskExecutor() lets thousands of lookups be in
+ * flight without an OS thread each, on older JVMs a bounded pool keeps the
+ * thread count under control since batching already divides the number of
+ * calls by the batch size
+ */
+public class BatchingAsyncSpecification extends AbstractAsyncSpecification {
+	private static final ScheduledExecutorService DEFAULT_TIMER = Executors.newSingleThreadScheduledExecutor(
+			new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "batching-specification-timer");
+					thread.setDaemon(true);
+					return thread;
+				}
+			}
+	);
+
+	/**
+	 * The slow lookup, it may block
+	 */
+	public interface BatchLookup {
+		/**
+		 * @return whether each candidate is satisfied, in the same order than the
+		 *         candidates
+		 */
+		public List<Boolean> lookup(List<Object> candidates) throws Exception;
+	}
+
+	private final BatchLookup _lookup;
+	private final Executor _executor;
+	private final ScheduledExecutorService _timer;
+	private final int _maxBatchSize;
+	private final long _maxDelayNanos;
+
+	private final Object _lock = new Object();
+	private List<Pending> _pending = new ArrayList<Pending>();
+	private ScheduledFuture<?> _scheduledFlush;
+
+	public static class Builder {
+		// required parameters
+		private final BatchLookup _lookup;
+		private final Executor _executor;
+
+		// optional parameters - initialized to default values
+		private ScheduledExecutorService _timer = DEFAULT_TIMER;
+		private int _maxBatchSize = 128;
+		private long _maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(1);
+
+		public Builder(BatchLookup lookup, Executor executor) {
+			_lookup = lookup;
+			_executor = executor;
+		}
+
+		public Builder timer(ScheduledExecutorService val) {
+			_timer = val;
+			return this;
+		}
+
+		public Builder maxBatchSize(int val) {
+			_maxBatchSize = val;
+			return this;
+		}
+
+		public Builder maxDelay(long val, TimeUnit unit) {
+			_maxDelayNanos = unit.toNanos(val);
+			return this;
+		}
+
+		public BatchingAsyncSpecification build() {
+			return new BatchingAsyncSpecification(this);
+		}
+	}
+
+	private BatchingAsyncSpecification(Builder builder) {
+		if (builder._lookup == null
+				|| builder._executor == null
+				|| builder._timer == null
+				|| builder._maxBatchSize < 1
+				|| builder._maxDelayNanos < 0) {
+			throw new IllegalArgumentException("Invalid batching specification configuration");
+		}
+
+		_lookup = builder._lookup;
+		_executor = builder._executor;
+		_timer = builder._timer;
+		_maxBatchSize = builder._maxBatchSize;
+		_maxDelayNanos = builder._maxDelayNanos;
+	}
+
+	@Override
+	public CompletableFuture<Boolean> isSatisfiedBy(Object candidate) {
+		CompletableFuture<Boolean> result = new CompletableFuture<Boolean>();
+		List<Pending> full = null;
+
+		synchronized (_lock) {
+			_pending.add(new Pending(candidate, result));
+
+			if (_pending.size() >= _maxBatchSize) {
+				full = takePending();
+			} else if (_pending.size() == 1) {
+				final List<Pending> batch = _pending;
+				_scheduledFlush = _timer.schedule(() -> flushAfterDelay(batch), _maxDelayNanos, TimeUnit.NANOSECONDS);
+			}
+		}
+
+		if (full != null) {
+			dispatch(full);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Sends the queued candidates to the lookup without waiting for the batch to
+	 * be full
+	 */
+	public void flush() {
+		List<Pending> batch;
+		synchronized (_lock) {
+			if (_pending.isEmpty()) {
+				return;
+			}
+
+			batch = takePending();
+		}
+
+		dispatch(batch);
+	}
+
+	/**
+	 * The timer of the given batch. Cancelling it does not stop a run already
+	 * started, so it only sends the batch it was scheduled for, never a newer
+	 * one that has its own delay
+	 */
+	private void flushAfterDelay(List<Pending> scheduled) {
+		List<Pending> batch;
+		synchronized (_lock) {
+			if (_pending != scheduled) {
+				return;
+			}
+
+			batch = takePending();
+		}
+
+		dispatch(batch);
+	}
+
+	// must be called holding the lock
+	private List<Pending> takePending() {
+		List<Pending> batch = _pending;
+		_pending = new ArrayList<Pending>();
+
+		if (_scheduledFlush != null) {
+			_scheduledFlush.cancel(false);
+			_scheduledFlush = null;
+		}
+
+		return batch;
+	}
+
+	private void dispatch(final List<Pending> batch) {
+		try {
+			_executor.execute(() -> lookup(batch));
+		} catch (RuntimeException e) {
+			fail(batch, e);
+		}
+	}
+
+	private void lookup(List<Pending> batch) {
+		List<Object> candidates = new ArrayList<Object>(batch.size());
+		for (Pending pending : batch) {
+			candidates.add(pending._candidate);
+		}
+
+		List<Boolean> results;
+		try {
+			results = _lookup.lookup(candidates);
+		} catch (Throwable e) {
+			fail(batch, e);
+			return;
+		}
+
+		if (results == null || results.size() != batch.size()) {
+			fail(batch, new IllegalStateException("The lookup must answer every candidate"));
+			return;
+		}
+
+		for (int i = 0; i < batch.size(); i++) {
+			batch.get(i)._result.complete(Boolean.TRUE.equals(results.get(i)));
+		}
+	}
+
+	private static void fail(List<Pending> batch, Throwable e) {
+		for (Pending pending : batch) {
+			pending._result.completeExceptionally(e);
+		}
+	}
+
+	private static class Pending {
+		final Object _candidate;
+		final CompletableFuture<Boolean> _result;
+
+		Pending(Object candidate, CompletableFuture<Boolean> result) {
+			_candidate = candidate;
+			_result = result;
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package com.illyum.specification.async;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The other specification is only evaluated when the first one is not
+ * satisfied
+ */
+public class OrAsyncSpecification extends AbstractAsyncSpecification {
+	private final AsyncSpecification _one;
+	private final AsyncSpecification _other;
+
+	public OrAsyncSpecification(AsyncSpecification one, AsyncSpecification other) {
+		_one = one;
+		_other = other;
+	}
+
+	@Override
+	public CompletableFuture<Boolean> isSatisfiedBy(final Object candidate) {
+		return _one.isSatisfiedBy(candidate).thenCompose(satisfied -> satisfied
+				? CompletableFuture.completedFuture(Boolean.TRUE)
+				: _other.isSatisfiedBy(candidate)
+		);
+	}
+}
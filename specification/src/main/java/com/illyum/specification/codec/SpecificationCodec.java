@@ -0,0 +1,257 @@
+package com.illyum.specification.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.illyum.specification.AndSpecification;
+import com.illyum.specification.Specification;
+import com.illyum.specification.loan.LoanMaxAmountSpecification;
+import com.illyum.specification.loan.LoanMinAmountSpecification;
+import com.illyum.specification.network.RuleNetwork;
+
+/**
+ * Compact binary format for named specification trees, so that every worker
+ * loads the same rule set instead of rebuilding it from code.
+ *
+ * <pre>
+ * rule set := MAGIC:int32 VERSION:int16 count:varint rule*
+ * rule     := idLength:varint id:utf8 node
+ * node     := AND node node | MAX amount:zigzag-varint | MIN amount:zigzag-varint
+ * </pre>
+ *
+ * Nodes are written in prefix order with a one byte tag. The decoder reads
+ * them straight from a ByteBuffer and shares the identical leaves between
+ * the decoded rules
+ */
+public class SpecificationCodec {
+	public static final int MAGIC = 0x53504543; // "SPEC"
+	public static final short VERSION = 1;
+
+	private static final byte AND = 1;
+	private static final byte MAX_AMOUNT = 2;
+	private static final byte MIN_AMOUNT = 3;
+
+	// an empty id and a leaf: idLength, tag and a one byte amount
+	private static final int MIN_RULE_BYTES = 3;
+
+	// the deepest nesting of AND nodes written and read, both recurse
+	static final int MAX_DEPTH = 512;
+
+	private SpecificationCodec() {
+	}
+
+	/**
+	 * @throws IllegalArgumentException
+	 *           if a rule holds a specification the format does not support or
+	 *           nests more than MAX_DEPTH AND nodes
+	 */
+	public static byte[] encode(Map<String, ? extends Specification> rules) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(16 + rules.size() * 32);
+
+		writeInt(out, MAGIC);
+		out.write(VERSION >>> 8);
+		out.write(VERSION);
+		writeVarint(out, rules.size());
+
+		for (Map.Entry<String, ? extends Specification> rule : rules.entrySet()) {
+			byte[] id = rule.getKey().getBytes(StandardCharsets.UTF_8);
+			writeVarint(out, id.length);
+			out.write(id, 0, id.length);
+			writeNode(out, rule.getValue(), 0);
+		}
+
+		return out.toByteArray();
+	}
+
+	/**
+	 * @return the rules in the order they were encoded
+	 * @throws IllegalArgumentException
+	 *           if the buffer does not hold a valid rule set of this version
+	 */
+	public static Map<String, Specification> decode(ByteBuffer buffer) {
+		Decoder decoder = new Decoder(buffer);
+		int count = decoder.readHeader();
+
+		Map<String, Specification> rules = new LinkedHashMap<String, Specification>(count * 4 / 3 + 1);
+		for (int i = 0; i < count; i++) {
+			String id = decoder.readId();
+			if (rules.put(id, decoder.readNode()) != null) {
+				throw new IllegalArgumentException("Duplicated rule id: " + id);
+			}
+		}
+
+		return rules;
+	}
+
+	/**
+	 * Decodes the rules straight into a rule network
+	 */
+	public static RuleNetwork decodeNetwork(ByteBuffer buffer) {
+		Decoder decoder = new Decoder(buffer);
+		int count = decoder.readHeader();
+
+		RuleNetwork.Builder builder = new RuleNetwork.Builder();
+		for (int i = 0; i < count; i++) {
+			builder.rule(decoder.readId(), decoder.readNode());
+		}
+
+		return builder.build();
+	}
+
+	private static void writeNode(ByteArrayOutputStream out, Specification specification, int depth) {
+		if (specification instanceof AndSpecification) {
+			if (depth == MAX_DEPTH) {
+				throw new IllegalArgumentException("Rule nested too deeply");
+			}
+
+			AndSpecification and = (AndSpecification) specification;
+			out.write(AND);
+			writeNode(out, and.getOne(), depth + 1);
+			writeNode(out, and.getOther(), depth + 1);
+		} else if (specification instanceof LoanMaxAmountSpecification) {
+			out.write(MAX_AMOUNT);
+			writeVarint(out, zigzag(((LoanMaxAmountSpecification) specification).getMaxAmount()));
+		} else if (specification instanceof LoanMinAmountSpecification) {
+			out.write(MIN_AMOUNT);
+			writeVarint(out, zigzag(((LoanMinAmountSpecification) specification).getMinAmount()));
+		} else {
+			throw new IllegalArgumentException(
+					"Unsupported specification: " + (specification == null ? null : specification.getClass().getName())
+			);
+		}
+	}
+
+	private static void writeInt(ByteArrayOutputStream out, int value) {
+		out.write(value >>> 24);
+		out.write(value >>> 16);
+		out.write(value >>> 8);
+		out.write(value);
+	}
+
+	private static void writeVarint(ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7f) != 0) {
+			out.write((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	private static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	private static int unzigzag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static class Decoder {
+		private final ByteBuffer _buffer;
+
+		// the identical leaves are decoded once, keyed by tag and amount
+		private final Map<Long, Specification> _leaves = new HashMap<Long, Specification>();
+
+		Decoder(ByteBuffer buffer) {
+			_buffer = buffer;
+		}
+
+		int readHeader() {
+			try {
+				if (_buffer.getInt() != MAGIC) {
+					throw new IllegalArgumentException("Not a specification rule set");
+				}
+
+				short version = _buffer.getShort();
+				if (version != VERSION) {
+					throw new IllegalArgumentException("Unsupported rule set version: " + version);
+				}
+
+				int count = readVarint();
+				if (count < 0 || count > _buffer.remaining() / MIN_RULE_BYTES) {
+					throw new IllegalArgumentException("Invalid rule count: " + count);
+				}
+
+				return count;
+			} catch (BufferUnderflowException e) {
+				throw new IllegalArgumentException("Truncated rule set", e);
+			}
+		}
+
+		String readId() {
+			try {
+				int length = readVarint();
+				if (length < 0 || length > _buffer.remaining()) {
+					throw new IllegalArgumentException("Truncated rule set");
+				}
+
+				byte[] id = new byte[length];
+				_buffer.get(id);
+				return new String(id, StandardCharsets.UTF_8);
+			} catch (BufferUnderflowException e) {
+				throw new IllegalArgumentException("Truncated rule set", e);
+			}
+		}
+
+		Specification readNode() {
+			return readNode(0);
+		}
+
+		private Specification readNode(int depth) {
+			try {
+				byte tag = _buffer.get();
+				switch (tag) {
+					case AND:
+						if (depth == MAX_DEPTH) {
+							throw new IllegalArgumentException("Rule nested too deeply");
+						}
+
+						Specification one = readNode(depth + 1);
+						return new AndSpecification(one, readNode(depth + 1));
+					case MAX_AMOUNT:
+					case MIN_AMOUNT:
+						return readLeaf(tag, unzigzag(readVarint()));
+					default:
+						throw new IllegalArgumentException("Unknown node tag: " + tag);
+				}
+			} catch (BufferUnderflowException e) {
+				throw new IllegalArgumentException("Truncated rule set", e);
+			}
+		}
+
+		private Specification readLeaf(byte tag, int amount) {
+			Long key = ((long) tag << 32) | (amount & 0xffffffffL);
+			Specification leaf = _leaves.get(key);
+
+			if (leaf == null) {
+				leaf = tag == MAX_AMOUNT
+						? new LoanMaxAmountSpecification(amount)
+						: new LoanMinAmountSpecification(amount);
+				_leaves.put(key, leaf);
+			}
+
+			return leaf;
+		}
+
+		private int readVarint() {
+			int value = 0;
+			for (int shift = 0; shift < 35; shift += 7) {
+				byte b = _buffer.get();
+				// the fifth byte holds the 4 highest bits only
+				if (shift == 28 && (b & 0xf0) != 0) {
+					throw new IllegalArgumentException("Malformed varint");
+				}
+
+				value |= (b & 0x7f) << shift;
+				if (b >= 0) {
+					return value;
+				}
+			}
+
+			throw new IllegalArgumentException("Malformed varint");
+		}
+	}
+}
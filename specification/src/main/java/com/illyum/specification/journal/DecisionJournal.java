@@ -0,0 +1,278 @@
+package com.illyum.specification.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.illyum.specification.Specification;
+import com.illyum.specification.example.Loan;
+
+/**
+ * Append-only journal of loan decisions.
+ *
+ * Callers copy their decisions into a bounded ring of primitive arrays and
+ * return, a single writer thread drains the ring in batches into fixed size
+ * records of a memory-mapped segment file and forces the segment to disk
+ * once per batch instead of once per decision. When a segment is full the
+ * writer rolls to a new one. When the ring is full the callers wait, so a
+ * slow disk slows the callers down instead of losing decisions.
+ *
+ * See DecisionJournalReader for the record layout
+ */
+public class DecisionJournal implements Closeable {
+	static final int RECORD_SIZE = 32;
+	static final int LOAN_ID_OFFSET = 0;
+	static final int TIMESTAMP_OFFSET = 8;
+	static final int AMOUNT_OFFSET = 16;
+	static final int RULE_ID_OFFSET = 20;
+	static final int OUTCOME_OFFSET = 24;
+	// written last, a zero marks the end of the records of a segment
+	static final int COMMITTED_OFFSET = 25;
+	static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+	static final String SEGMENT_SUFFIX = ".journal";
+
+	private final Path _directory;
+	private final int _recordsPerSegment;
+
+	// the ring, only the positions between _written and _appended hold records
+	private final long[] _loanIds;
+	private final long[] _timestamps;
+	private final int[] _amounts;
+	private final int[] _ruleIds;
+	private final boolean[] _outcomes;
+	private final int _mask;
+
+	private final ReentrantLock _lock = new ReentrantLock();
+	private final Condition _notEmpty = _lock.newCondition();
+	private final Condition _notFull = _lock.newCondition();
+	private final Condition _forced = _lock.newCondition();
+	private long _appended;
+	private long _written;
+	private long _forcedSequence;
+	private boolean _closed;
+	private IOException _failure;
+
+	private final Thread _writer;
+	private long _segmentIndex;
+	private FileChannel _segmentChannel;
+	private MappedByteBuffer _segment;
+
+	/**
+	 * @param ringCapacity
+	 *          decisions buffered before the callers have to wait, rounded up
+	 *          to a power of two
+	 */
+	public DecisionJournal(Path directory, int recordsPerSegment, int ringCapacity) throws IOException {
+		if (recordsPerSegment < 1
+				|| recordsPerSegment > Integer.MAX_VALUE / RECORD_SIZE
+				|| ringCapacity < 1 || ringCapacity > 1 << 30) {
+			throw new IllegalArgumentException("Invalid decision journal configuration");
+		}
+
+		_directory = directory;
+		_recordsPerSegment = recordsPerSegment;
+
+		int capacity = Integer.highestOneBit(ringCapacity);
+		if (capacity < ringCapacity) {
+			capacity <<= 1;
+		}
+		_loanIds = new long[capacity];
+		_timestamps = new long[capacity];
+		_amounts = new int[capacity];
+		_ruleIds = new int[capacity];
+		_outcomes = new boolean[capacity];
+		_mask = capacity - 1;
+
+		Files.createDirectories(directory);
+		_segmentIndex = DecisionJournalReader.nextSegmentIndex(directory);
+		openSegment();
+
+		_writer = new Thread(this::write, "decision-journal-writer");
+		_writer.setDaemon(true);
+		_writer.start();
+	}
+
+	/**
+	 * Evaluates the specification and journals the decision
+	 */
+	public boolean decide(long loanId, int ruleId, Specification specification, Loan loan) throws IOException {
+		boolean accepted = specification.isSatisfiedBy(loan);
+		append(loanId, loan.getAmount(), ruleId, accepted);
+		return accepted;
+	}
+
+	public void append(long loanId, int amount, int ruleId, boolean accepted) throws IOException {
+		long timestamp = System.currentTimeMillis();
+
+		_lock.lock();
+		try {
+			while (!_closed && _failure == null && _appended - _written > _mask) {
+				_notFull.awaitUninterruptibly();
+			}
+			checkOpen();
+
+			int slot = (int) (_appended & _mask);
+			_loanIds[slot] = loanId;
+			_timestamps[slot] = timestamp;
+			_amounts[slot] = amount;
+			_ruleIds[slot] = ruleId;
+			_outcomes[slot] = accepted;
+			_appended++;
+
+			_notEmpty.signal();
+		} finally {
+			_lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits until every decision appended so far is forced to disk
+	 */
+	public void sync() throws IOException {
+		_lock.lock();
+		try {
+			long target = _appended;
+			while (_failure == null && _forcedSequence < target) {
+				_forced.awaitUninterruptibly();
+			}
+
+			if (_failure != null) {
+				throw new IOException("The decision journal failed", _failure);
+			}
+		} finally {
+			_lock.unlock();
+		}
+	}
+
+	/**
+	 * Writes the pending decisions and stops the writer
+	 */
+	@Override
+	public void close() throws IOException {
+		_lock.lock();
+		try {
+			if (_closed) {
+				return;
+			}
+
+			_closed = true;
+			_notEmpty.signal();
+			_notFull.signalAll();
+		} finally {
+			_lock.unlock();
+		}
+
+		try {
+			_writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while closing the decision journal", e);
+		}
+
+		_segmentChannel.close();
+
+		if (_failure != null) {
+			throw new IOException("The decision journal failed", _failure);
+		}
+	}
+
+	private void checkOpen() throws IOException {
+		if (_failure != null) {
+			throw new IOException("The decision journal failed", _failure);
+		}
+
+		if (_closed) {
+			throw new IOException("The decision journal is closed");
+		}
+	}
+
+	private void write() {
+		try {
+			while (true) {
+				long from;
+				long to;
+
+				_lock.lock();
+				try {
+					while (!_closed && _appended == _written) {
+						_notEmpty.await(1, TimeUnit.SECONDS);
+					}
+
+					if (_appended == _written) {
+						// closed and drained
+						return;
+					}
+
+					from = _written;
+					to = _appended;
+				} finally {
+					_lock.unlock();
+				}
+
+				// the slots between from and to are not reused until _written
+				// moves, so they can be read without the lock
+				for (long sequence = from; sequence < to; sequence++) {
+					writeRecord((int) (sequence & _mask));
+				}
+				_segment.force();
+
+				_lock.lock();
+				try {
+					_written = to;
+					_forcedSequence = to;
+					_notFull.signalAll();
+					_forced.signalAll();
+				} finally {
+					_lock.unlock();
+				}
+			}
+		} catch (IOException | InterruptedException | RuntimeException e) {
+			_lock.lock();
+			try {
+				_failure = e instanceof IOException ? (IOException) e : new IOException(e);
+				_notFull.signalAll();
+				_forced.signalAll();
+			} finally {
+				_lock.unlock();
+			}
+		}
+	}
+
+	private void writeRecord(int slot) throws IOException {
+		if (!_segment.hasRemaining()) {
+			_segment.force();
+			_segmentChannel.close();
+			_segmentIndex++;
+			openSegment();
+		}
+
+		int position = _segment.position();
+		_segment.putLong(position + LOAN_ID_OFFSET, _loanIds[slot]);
+		_segment.putLong(position + TIMESTAMP_OFFSET, _timestamps[slot]);
+		_segment.putInt(position + AMOUNT_OFFSET, _amounts[slot]);
+		_segment.putInt(position + RULE_ID_OFFSET, _ruleIds[slot]);
+		_segment.put(position + OUTCOME_OFFSET, (byte) (_outcomes[slot] ? 1 : 0));
+		_segment.put(position + COMMITTED_OFFSET, (byte) 1);
+		_segment.position(position + RECORD_SIZE);
+	}
+
+	private void openSegment() throws IOException {
+		Path path = _directory.resolve(String.format("%016d%s", _segmentIndex, SEGMENT_SUFFIX));
+		_segmentChannel = FileChannel.open(
+				path,
+				StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.READ,
+				StandardOpenOption.WRITE
+		);
+		_segment = _segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, (long) _recordsPerSegment * RECORD_SIZE);
+		_segment.order(BYTE_ORDER);
+	}
+}
@@ -0,0 +1,109 @@
+package com.illyum.specification.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sequential reader of the segments written by a DecisionJournal, for replays
+ * and audits.
+ *
+ * Segments are named after their index and hold fixed size little endian
+ * records of 32 bytes:
+ *
+ * <pre>
+ *  0 loan id      int64
+ *  8 timestamp    int64 (milliseconds since the epoch)
+ * 16 amount       int32
+ * 20 rule id      int32
+ * 24 outcome      int8  (1 accepted, 0 rejected)
+ * 25 committed    int8  (1 for every written record)
+ * 26 reserved
+ * </pre>
+ *
+ * The records of a segment end at the first one that is not committed
+ */
+public class DecisionJournalReader {
+
+	/**
+	 * Receives the decisions without allocating an object per record
+	 */
+	public interface DecisionVisitor {
+		public void onDecision(long loanId, long timestamp, int amount, int ruleId, boolean accepted);
+	}
+
+	private DecisionJournalReader() {
+	}
+
+	/**
+	 * @return the number of decisions read
+	 */
+	public static long replay(Path directory, DecisionVisitor visitor) throws IOException {
+		long decisions = 0;
+
+		for (Path segment : segments(directory)) {
+			try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				buffer.order(DecisionJournal.BYTE_ORDER);
+
+				for (int position = 0; position + DecisionJournal.RECORD_SIZE <= buffer.limit(); position += DecisionJournal.RECORD_SIZE) {
+					if (buffer.get(position + DecisionJournal.COMMITTED_OFFSET) == 0) {
+						break;
+					}
+
+					visitor.onDecision(
+							buffer.getLong(position + DecisionJournal.LOAN_ID_OFFSET),
+							buffer.getLong(position + DecisionJournal.TIMESTAMP_OFFSET),
+							buffer.getInt(position + DecisionJournal.AMOUNT_OFFSET),
+							buffer.getInt(position + DecisionJournal.RULE_ID_OFFSET),
+							buffer.get(position + DecisionJournal.OUTCOME_OFFSET) != 0
+					);
+					decisions++;
+				}
+			}
+		}
+
+		return decisions;
+	}
+
+	/**
+	 * @return the segments of the journal in the order they were written
+	 */
+	public static List<Path> segments(Path directory) throws IOException {
+		List<Path> segments = new ArrayList<Path>();
+		if (!Files.isDirectory(directory)) {
+			return segments;
+		}
+
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + DecisionJournal.SEGMENT_SUFFIX)) {
+			for (Path segment : stream) {
+				segments.add(segment);
+			}
+		}
+
+		// the names are zero padded indexes, so they sort in write order
+		Collections.sort(segments);
+		return segments;
+	}
+
+	static long nextSegmentIndex(Path directory) throws IOException {
+		List<Path> segments = segments(directory);
+		if (segments.isEmpty()) {
+			return 0;
+		}
+
+		String name = segments.get(segments.size() - 1).getFileName().toString();
+		try {
+			return Long.parseLong(name.substring(0, name.length() - DecisionJournal.SEGMENT_SUFFIX.length())) + 1;
+		} catch (NumberFormatException e) {
+			throw new IOException("Unexpected journal segment: " + name, e);
+		}
+	}
+}
@@ -10,6 +10,10 @@ public class LoanMaxAmountSpecification extends AbstractSpecification {
 		_maxAmount = maxAmount;
 	}
 
+	public int getMaxAmount() {
+		return _maxAmount;
+	}
+
 	@Override
 	public boolean isSatisfiedBy(Object candidate) {
 		if (!(candidate instanceof Loan)) {
@@ -19,4 +23,22 @@ public class LoanMaxAmountSpecification extends AbstractSpecification {
 		return ((Loan) candidate).getAmount() < _maxAmount;
 	}
 
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+
+		if (!(obj instanceof LoanMaxAmountSpecification)) {
+			return false;
+		}
+
+		return _maxAmount == ((LoanMaxAmountSpecification) obj)._maxAmount;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * LoanMaxAmountSpecification.class.hashCode() + _maxAmount;
+	}
+
 }
@@ -10,6 +10,10 @@ public class LoanMinAmountSpecification extends AbstractSpecification {
 		_minAmount = minAmount;
 	}
 
+	public int getMinAmount() {
+		return _minAmount;
+	}
+
 	@Override
 	public boolean isSatisfiedBy(Object candidate) {
 		if (!(candidate instanceof Loan)) {
@@ -19,4 +23,22 @@ public class LoanMinAmountSpecification extends AbstractSpecification {
 		return _minAmount < ((Loan) candidate).getAmount();
 	}
 
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+
+		if (!(obj instanceof LoanMinAmountSpecification)) {
+			return false;
+		}
+
+		return _minAmount == ((LoanMinAmountSpecification) obj)._minAmount;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * LoanMinAmountSpecification.class.hashCode() + _minAmount;
+	}
+
 }
@@ -0,0 +1,35 @@
+package com.illyum.specification.metrics;
+
+import com.illyum.specification.AbstractSpecification;
+import com.illyum.specification.Specification;
+
+/**
+ * Decorates a specification recording the outcome and the latency of every
+ * evaluation
+ */
+public class InstrumentedSpecification extends AbstractSpecification {
+	private final Specification _delegate;
+	private final SpecificationMetrics _metrics;
+
+	public InstrumentedSpecification(Specification delegate, SpecificationMetrics metrics) {
+		_delegate = delegate;
+		_metrics = metrics;
+	}
+
+	public Specification getDelegate() {
+		return _delegate;
+	}
+
+	public SpecificationMetrics getMetrics() {
+		return _metrics;
+	}
+
+	@Override
+	public boolean isSatisfiedBy(Object candidate) {
+		long start = System.nanoTime();
+		boolean satisfied = _delegate.isSatisfiedBy(candidate);
+		_metrics.record(satisfied, System.nanoTime() - start);
+
+		return satisfied;
+	}
+}
@@ -0,0 +1,95 @@
+package com.illyum.specification.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of one node of an instrumented specification tree.
+ *
+ * LongAdder stripes its cells between the threads that contend on it, so
+ * concurrent evaluations record their outcome without fighting over a single
+ * cache line
+ */
+public class SpecificationMetrics implements SpecificationMetricsMBean {
+	private static final int BUCKETS = 64;
+
+	private final String _name;
+	private final LongAdder _passed = new LongAdder();
+	private final LongAdder _failed = new LongAdder();
+	private final LongAdder _totalNanos = new LongAdder();
+	private final LongAdder[] _latencyBuckets = new LongAdder[BUCKETS];
+
+	public SpecificationMetrics(String name) {
+		_name = name;
+
+		for (int i = 0; i < BUCKETS; i++) {
+			_latencyBuckets[i] = new LongAdder();
+		}
+	}
+
+	public void record(boolean satisfied, long nanos) {
+		if (satisfied) {
+			_passed.increment();
+		} else {
+			_failed.increment();
+		}
+
+		if (nanos < 0) {
+			nanos = 0;
+		}
+
+		_totalNanos.add(nanos);
+		_latencyBuckets[BUCKETS - Long.numberOfLeadingZeros(nanos)].increment();
+	}
+
+	@Override
+	public String getName() {
+		return _name;
+	}
+
+	@Override
+	public long getInvocations() {
+		return getPassed() + getFailed();
+	}
+
+	@Override
+	public long getPassed() {
+		return _passed.sum();
+	}
+
+	@Override
+	public long getFailed() {
+		return _failed.sum();
+	}
+
+	@Override
+	public long getTotalNanos() {
+		return _totalNanos.sum();
+	}
+
+	@Override
+	public double getMeanNanos() {
+		long invocations = getInvocations();
+		return invocations == 0 ? 0 : (double) getTotalNanos() / invocations;
+	}
+
+	@Override
+	public long[] getLatencyHistogram() {
+		long[] histogram = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			histogram[i] = _latencyBuckets[i].sum();
+		}
+
+		return histogram;
+	}
+
+	@Override
+	public void reset() {
+		_passed.reset();
+		_failed.reset();
+		_totalNanos.reset();
+
+		for (LongAdder bucket : _latencyBuckets) {
+			bucket.reset();
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package com.illyum.specification.metrics;
+
+/**
+ * JMX view of the metrics recorded for one node of a specification tree
+ */
+public interface SpecificationMetricsMBean {
+	public String getName();
+
+	public long getInvocations();
+
+	public long getPassed();
+
+	public long getFailed();
+
+	public long getTotalNanos();
+
+	public double getMeanNanos();
+
+	/**
+	 * @return the latency histogram, the bucket i counts the evaluations that
+	 *         took less than 2^i nanoseconds but not less than 2^(i-1), the
+	 *         bucket 0 counts the ones under the timer resolution
+	 */
+	public long[] getLatencyHistogram();
+
+	public void reset();
+}
@@ -0,0 +1,125 @@
+package com.illyum.specification.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.illyum.specification.AndSpecification;
+import com.illyum.specification.Specification;
+
+/**
+ * Opt-in instrumentation of specification trees.
+ *
+ * Only the trees returned by instrument are measured, the original trees are
+ * left untouched, so the specifications that are not instrumented pay nothing
+ * for this feature.
+ *
+ * Every node of an instrumented tree gets its own metrics named after its
+ * position in the tree, e.g. loan, loan.one and loan.other for the
+ * specification of SpecificationRepository. When the registry is created
+ * with an MBeanServer every metrics is exposed as an MBean as soon as it is
+ * created
+ */
+public class SpecificationMetricsRegistry {
+	public static final String DOMAIN = "com.illyum.specification";
+
+	private final ConcurrentMap<String, SpecificationMetrics> _metrics = new ConcurrentHashMap<String, SpecificationMetrics>();
+	private final MBeanServer _mBeanServer;
+
+	public SpecificationMetricsRegistry() {
+		this(null);
+	}
+
+	public SpecificationMetricsRegistry(MBeanServer mBeanServer) {
+		_mBeanServer = mBeanServer;
+	}
+
+	/**
+	 * @return a copy of the specification tree whose nodes record their
+	 *         metrics under the given name
+	 */
+	public Specification instrument(String name, Specification specification) {
+		Specification instrumented = specification;
+
+		if (specification instanceof AndSpecification) {
+			AndSpecification and = (AndSpecification) specification;
+			instrumented = new AndSpecification(
+					instrument(name + ".one", and.getOne()),
+					instrument(name + ".other", and.getOther())
+			);
+		}
+
+		return new InstrumentedSpecification(instrumented, getMetrics(name));
+	}
+
+	/**
+	 * @return the metrics with the given name, created if needed
+	 */
+	public SpecificationMetrics getMetrics(String name) {
+		SpecificationMetrics metrics = _metrics.get(name);
+		if (metrics != null) {
+			return metrics;
+		}
+
+		SpecificationMetrics created = new SpecificationMetrics(name);
+		metrics = _metrics.putIfAbsent(name, created);
+		if (metrics != null) {
+			return metrics;
+		}
+
+		register(created);
+		return created;
+	}
+
+	public Collection<SpecificationMetrics> getAllMetrics() {
+		return new ArrayList<SpecificationMetrics>(_metrics.values());
+	}
+
+	public void resetAll() {
+		for (SpecificationMetrics metrics : _metrics.values()) {
+			metrics.reset();
+		}
+	}
+
+	/**
+	 * Removes every metrics from the registry and from the MBeanServer
+	 */
+	public void close() {
+		List<SpecificationMetrics> removed = new ArrayList<SpecificationMetrics>(_metrics.values());
+		_metrics.clear();
+
+		if (_mBeanServer == null) {
+			return;
+		}
+
+		for (SpecificationMetrics metrics : removed) {
+			try {
+				_mBeanServer.unregisterMBean(objectName(metrics.getName()));
+			} catch (JMException e) {
+				// already unregistered by someone else
+			}
+		}
+	}
+
+	public static ObjectName objectName(String name) throws JMException {
+		return new ObjectName(DOMAIN + ":type=SpecificationMetrics,name=" + ObjectName.quote(name));
+	}
+
+	private void register(SpecificationMetrics metrics) {
+		if (_mBeanServer == null) {
+			return;
+		}
+
+		try {
+			_mBeanServer.registerMBean(metrics, objectName(metrics.getName()));
+		} catch (JMException e) {
+			throw new IllegalStateException("Cannot register the metrics " + metrics.getName(), e);
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package com.illyum.specification.network;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.illyum.specification.AndSpecification;
+import com.illyum.specification.Specification;
+
+/**
+ * Evaluates many specifications against the same candidate sharing their
+ * conditions, in the spirit of a Rete network.
+ *
+ * Every registered rule is flattened into the conjunction of its leaf
+ * specifications (the operands of its AndSpecification tree). Identical
+ * leaves, as defined by their equals method, become a single condition node
+ * shared by every rule that needs it, so each distinct condition is
+ * evaluated at most once per candidate no matter how many rules use it.
+ *
+ * A network is immutable once built, so it can be shared between threads
+ */
+public class RuleNetwork {
+	private final String[] _ruleIds;
+	private final Specification[] _conditions;
+
+	// condition index -> indexes of the rules that require that condition
+	private final int[][] _successors;
+
+	public static class Builder {
+		private final Map<Specification, Integer> _conditionIndexes = new HashMap<Specification, Integer>();
+		private final List<Specification> _conditions = new ArrayList<Specification>();
+		private final List<BitSet> _successors = new ArrayList<BitSet>();
+		private final List<String> _ruleIds = new ArrayList<String>();
+		private final Set<String> _registeredRuleIds = new HashSet<String>();
+
+		public Builder() {
+		}
+
+		public Builder rule(String ruleId, Specification specification) {
+			if (ruleId == null || specification == null) {
+				throw new IllegalArgumentException("A rule needs an id and a specification");
+			}
+
+			if (!_registeredRuleIds.add(ruleId)) {
+				throw new IllegalArgumentException("Duplicated rule id: " + ruleId);
+			}
+
+			int rule = _ruleIds.size();
+			_ruleIds.add(ruleId);
+			addConditions(rule, specification);
+			return this;
+		}
+
+		private void addConditions(int rule, Specification specification) {
+			if (specification instanceof AndSpecification) {
+				AndSpecification and = (AndSpecification) specification;
+				addConditions(rule, and.getOne());
+				addConditions(rule, and.getOther());
+				return;
+			}
+
+			Integer condition = _conditionIndexes.get(specification);
+			if (condition == null) {
+				condition = _conditions.size();
+				_conditionIndexes.put(specification, condition);
+				_conditions.add(specification);
+				_successors.add(new BitSet());
+			}
+
+			_successors.get(condition).set(rule);
+		}
+
+		public RuleNetwork build() {
+			return new RuleNetwork(this);
+		}
+	}
+
+	private RuleNetwork(Builder builder) {
+		_ruleIds = builder._ruleIds.toArray(new String[builder._ruleIds.size()]);
+		_conditions = builder._conditions.toArray(new Specification[builder._conditions.size()]);
+		_successors = new int[_conditions.length][];
+
+		for (int condition = 0; condition < _conditions.length; condition++) {
+			BitSet rules = builder._successors.get(condition);
+			int[] successors = new int[rules.cardinality()];
+
+			int i = 0;
+			for (int rule = rules.nextSetBit(0); rule >= 0; rule = rules.nextSetBit(rule + 1)) {
+				successors[i++] = rule;
+			}
+
+			_successors[condition] = successors;
+		}
+	}
+
+	public int getRuleCount() {
+		return _ruleIds.length;
+	}
+
+	/**
+	 * @return the number of distinct conditions shared by all the rules
+	 */
+	public int getConditionCount() {
+		return _conditions.length;
+	}
+
+	public String getRuleId(int rule) {
+		return _ruleIds[rule];
+	}
+
+	/**
+	 * Evaluates every rule against the candidate
+	 *
+	 * @return the indexes of the rules satisfied by the candidate
+	 */
+	public BitSet evaluateRules(Object candidate) {
+		BitSet satisfied = new BitSet(_ruleIds.length);
+		satisfied.set(0, _ruleIds.length);
+
+		for (int condition = 0; condition < _conditions.length; condition++) {
+			int[] successors = _successors[condition];
+
+			// a condition whose rules have all failed already is not worth
+			// evaluating
+			if (!anySatisfied(satisfied, successors)) {
+				continue;
+			}
+
+			if (!_conditions[condition].isSatisfiedBy(candidate)) {
+				for (int rule : successors) {
+					satisfied.clear(rule);
+				}
+			}
+		}
+
+		return satisfied;
+	}
+
+	/**
+	 * Evaluates every rule against the candidate
+	 *
+	 * @return the ids of the rules satisfied by the candidate in registration
+	 *         order
+	 */
+	public Set<String> evaluate(Object candidate) {
+		BitSet satisfied = evaluateRules(candidate);
+
+		Set<String> ruleIds = new LinkedHashSet<String>();
+		for (int rule = satisfied.nextSetBit(0); rule >= 0; rule = satisfied.nextSetBit(rule + 1)) {
+			ruleIds.add(_ruleIds[rule]);
+		}
+
+		return ruleIds;
+	}
+
+	private static boolean anySatisfied(BitSet satisfied, int[] rules) {
+		for (int rule : rules) {
+			if (satisfied.get(rule)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
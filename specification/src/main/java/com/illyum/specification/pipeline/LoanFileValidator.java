@@ -0,0 +1,487 @@
+package com.illyum.specification.pipeline;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.illyum.specification.Specification;
+import com.illyum.specification.example.Loan;
+
+/**
+ * Validates a loan file against a specification, copying every record to the
+ * accepted or to the rejected output file.
+ *
+ * The file holds one record per line, the loan amount is one of its fields.
+ * Records are copied straight from the FileChannel into fixed size batches
+ * whose amounts are parsed from the bytes into a column of ints, so no String
+ * is built per line. Batches are evaluated in parallel and written in the
+ * input order; the number of batches is fixed, so when the writer falls
+ * behind the reader waits for a free batch and the memory used stays the
+ * same whatever the size of the file.
+ *
+ * Lines that are empty are skipped, lines whose amount cannot be parsed are
+ * rejected
+ */
+public class LoanFileValidator {
+	private static final int IO_BUFFER_SIZE = 64 * 1024;
+	private static final long WRITER_CHECK_MILLIS = 100;
+
+	private final Specification _specification;
+	private final int _amountColumn;
+	private final byte _separator;
+	private final int _batchRecords;
+	private final int _batchBytes;
+	private final int _parallelism;
+	private final int _batchesInFlight;
+
+	public static class Builder {
+		// required parameters
+		private final Specification _specification;
+
+		// optional parameters - initialized to default values
+		private int _amountColumn = 0;
+		private char _separator = ',';
+		private int _batchRecords = 4096;
+		private int _batchBytes = 256 * 1024;
+		private int _parallelism = Runtime.getRuntime().availableProcessors();
+		private int _batchesInFlight = 2 * Runtime.getRuntime().availableProcessors();
+
+		public Builder(Specification specification) {
+			_specification = specification;
+		}
+
+		public Builder amountColumn(int val) {
+			_amountColumn = val;
+			return this;
+		}
+
+		public Builder separator(char val) {
+			_separator = val;
+			return this;
+		}
+
+		public Builder batchRecords(int val) {
+			_batchRecords = val;
+			return this;
+		}
+
+		/**
+		 * @param val
+		 *          capacity in bytes of a batch, it also bounds the length of a
+		 *          record
+		 */
+		public Builder batchBytes(int val) {
+			_batchBytes = val;
+			return this;
+		}
+
+		public Builder parallelism(int val) {
+			_parallelism = val;
+			return this;
+		}
+
+		public Builder batchesInFlight(int val) {
+			_batchesInFlight = val;
+			return this;
+		}
+
+		public LoanFileValidator build() {
+			return new LoanFileValidator(this);
+		}
+	}
+
+	private LoanFileValidator(Builder builder) {
+		if (builder._specification == null
+				|| builder._amountColumn < 0
+				|| builder._separator > 0x7f
+				|| builder._batchRecords < 1
+				|| builder._batchBytes < 2
+				|| builder._parallelism < 1
+				|| builder._batchesInFlight < 1) {
+			throw new IllegalArgumentException("Invalid loan file validator configuration");
+		}
+
+		_specification = builder._specification;
+		_amountColumn = builder._amountColumn;
+		_separator = (byte) builder._separator;
+		_batchRecords = builder._batchRecords;
+		_batchBytes = builder._batchBytes;
+		_parallelism = builder._parallelism;
+		_batchesInFlight = builder._batchesInFlight;
+	}
+
+	public ValidationSummary validate(Path input, Path accepted, Path rejected) throws IOException {
+		ExecutorService evaluators = Executors.newFixedThreadPool(_parallelism);
+		ExecutorService writerExecutor = Executors.newSingleThreadExecutor();
+
+		// one batch being filled, the ones in flight and one being written
+		BlockingQueue<Batch> freeBatches = new ArrayBlockingQueue<Batch>(_batchesInFlight + 2);
+		for (int i = 0; i < _batchesInFlight + 2; i++) {
+			freeBatches.add(new Batch(_batchRecords, _batchBytes));
+		}
+		BlockingQueue<Future<Batch>> evaluated = new ArrayBlockingQueue<Future<Batch>>(_batchesInFlight);
+
+		try (
+				FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+				FileChannel acceptedOut = openForWrite(accepted);
+				FileChannel rejectedOut = openForWrite(rejected)
+		) {
+			Writer writer = new Writer(evaluated, freeBatches, acceptedOut, rejectedOut);
+			Future<?> writing = writerExecutor.submit(writer);
+
+			try {
+				read(in, freeBatches, evaluated, evaluators, writing);
+				put(evaluated, CompletableFuture.completedFuture(Batch.END), writing);
+				writing.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Validation interrupted", e);
+			} catch (ExecutionException e) {
+				throw unwrap(e);
+			}
+
+			return writer.summary();
+		} finally {
+			evaluators.shutdownNow();
+			writerExecutor.shutdownNow();
+		}
+	}
+
+	private void read(
+			FileChannel in,
+			BlockingQueue<Batch> freeBatches,
+			BlockingQueue<Future<Batch>> evaluated,
+			ExecutorService evaluators,
+			Future<?> writing
+	) throws IOException, InterruptedException, ExecutionException {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+		Batch batch = takeFree(freeBatches, writing);
+		boolean endOfFile = false;
+
+		while (!endOfFile) {
+			buffer.clear();
+			endOfFile = in.read(buffer) < 0;
+			buffer.flip();
+
+			int length = buffer.remaining();
+			for (int i = 0; i <= length; i++) {
+				byte b;
+				if (i < length) {
+					b = buffer.get();
+				} else if (endOfFile && batch._length > batch._recordStart) {
+					// the last line has no line terminator
+					b = '\n';
+				} else {
+					break;
+				}
+
+				if (batch._length == batch._data.length) {
+					// the record does not fit, it is moved to the next batch
+					if (batch._recordStart == 0) {
+						throw new IOException("A record is longer than " + _batchBytes + " bytes");
+					}
+
+					Batch next = takeFree(freeBatches, writing);
+					next.carryOver(batch);
+					submit(batch, evaluated, evaluators, writing);
+					batch = next;
+				}
+
+				batch._data[batch._length++] = b;
+				if (b == '\n') {
+					endRecord(batch);
+
+					if (batch._records == _batchRecords) {
+						submit(batch, evaluated, evaluators, writing);
+						batch = takeFree(freeBatches, writing);
+					}
+				}
+			}
+		}
+
+		if (batch._records > 0) {
+			submit(batch, evaluated, evaluators, writing);
+		}
+	}
+
+	private void endRecord(Batch batch) {
+		int start = batch._recordStart;
+		int end = batch._length - 1;
+		if (end > start && batch._data[end - 1] == '\r') {
+			end--;
+		}
+
+		if (end == start) {
+			// empty lines are skipped
+			batch._length = start;
+			return;
+		}
+
+		int record = batch._records++;
+		batch._starts[record] = start;
+		batch._ends[record] = batch._length;
+		batch._parsed[record] = parseAmount(batch, record, start, end);
+		batch._recordStart = batch._length;
+	}
+
+	/**
+	 * Parses the amount column of the record straight from its bytes
+	 *
+	 * @return false if the record has no valid amount
+	 */
+	private boolean parseAmount(Batch batch, int record, int start, int end) {
+		byte[] data = batch._data;
+
+		int position = start;
+		for (int column = 0; column < _amountColumn; column++) {
+			while (position < end && data[position] != _separator) {
+				position++;
+			}
+			if (position == end) {
+				return false;
+			}
+			position++;
+		}
+
+		while (position < end && data[position] == ' ') {
+			position++;
+		}
+
+		boolean negative = position < end && data[position] == '-';
+		if (negative) {
+			position++;
+		}
+
+		long amount = 0;
+		int digits = 0;
+		while (position < end && data[position] >= '0' && data[position] <= '9') {
+			amount = amount * 10 + (data[position++] - '0');
+			if (++digits > 10) {
+				return false;
+			}
+		}
+
+		while (position < end && data[position] == ' ') {
+			position++;
+		}
+
+		if (digits == 0 || (position < end && data[position] != _separator)) {
+			return false;
+		}
+
+		amount = negative ? -amount : amount;
+		if (amount < Integer.MIN_VALUE || amount > Integer.MAX_VALUE) {
+			return false;
+		}
+
+		batch._amounts[record] = (int) amount;
+		return true;
+	}
+
+	private void submit(
+			final Batch batch,
+			BlockingQueue<Future<Batch>> evaluated,
+			ExecutorService evaluators,
+			Future<?> writing
+	) throws InterruptedException, ExecutionException {
+		put(evaluated, evaluators.submit(() -> {
+			for (int record = 0; record < batch._records; record++) {
+				batch._accepted[record] = batch._parsed[record]
+						&& _specification.isSatisfiedBy(new Loan(batch._amounts[record]));
+			}
+			return batch;
+		}), writing);
+	}
+
+	/**
+	 * Waits for a free batch, this is where the reader is held back when the
+	 * writer falls behind
+	 */
+	private static Batch takeFree(BlockingQueue<Batch> freeBatches, Future<?> writing)
+			throws InterruptedException, ExecutionException {
+		Batch batch;
+		do {
+			checkWriter(writing);
+			batch = freeBatches.poll(WRITER_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+		} while (batch == null);
+
+		batch.clear();
+		return batch;
+	}
+
+	private static void put(BlockingQueue<Future<Batch>> evaluated, Future<Batch> batch, Future<?> writing)
+			throws InterruptedException, ExecutionException {
+		do {
+			checkWriter(writing);
+		} while (!evaluated.offer(batch, WRITER_CHECK_MILLIS, TimeUnit.MILLISECONDS));
+	}
+
+	private static void checkWriter(Future<?> writing) throws InterruptedException, ExecutionException {
+		if (writing.isDone()) {
+			// the writer only stops before the end when it fails, get throws
+			// its failure
+			writing.get();
+			throw new IllegalStateException("The writer stopped before the end of the input");
+		}
+	}
+
+	private static FileChannel openForWrite(Path path) throws IOException {
+		return FileChannel.open(
+				path,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING
+		);
+	}
+
+	private static IOException unwrap(ExecutionException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof IOException) {
+			return (IOException) cause;
+		}
+
+		return new IOException("Validation failed", cause);
+	}
+
+	/**
+	 * A fixed number of records copied from the input with their amount column
+	 */
+	private static class Batch {
+		static final Batch END = new Batch(0, 0);
+
+		final byte[] _data;
+		final int[] _starts;
+		final int[] _ends;
+		final int[] _amounts;
+		final boolean[] _parsed;
+		final boolean[] _accepted;
+
+		int _length;
+		int _records;
+		int _recordStart;
+
+		Batch(int records, int bytes) {
+			_data = new byte[bytes];
+			_starts = new int[records];
+			_ends = new int[records];
+			_amounts = new int[records];
+			_parsed = new boolean[records];
+			_accepted = new boolean[records];
+		}
+
+		void clear() {
+			_length = 0;
+			_records = 0;
+			_recordStart = 0;
+		}
+
+		/**
+		 * Moves the incomplete record at the end of the previous batch to this
+		 * one
+		 */
+		void carryOver(Batch previous) {
+			int partial = previous._length - previous._recordStart;
+			System.arraycopy(previous._data, previous._recordStart, _data, 0, partial);
+			_length = partial;
+			previous._length = previous._recordStart;
+		}
+	}
+
+	/**
+	 * Writes the evaluated batches in the input order and gives them back to the
+	 * reader
+	 */
+	private static class Writer implements Callable<Void> {
+		private final BlockingQueue<Future<Batch>> _evaluated;
+		private final BlockingQueue<Batch> _freeBatches;
+		private final FileChannel _acceptedOut;
+		private final FileChannel _rejectedOut;
+		private final ByteBuffer _acceptedBuffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+		private final ByteBuffer _rejectedBuffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+
+		private long _accepted;
+		private long _rejected;
+		private long _malformed;
+
+		Writer(
+				BlockingQueue<Future<Batch>> evaluated,
+				BlockingQueue<Batch> freeBatches,
+				FileChannel acceptedOut,
+				FileChannel rejectedOut
+		) {
+			_evaluated = evaluated;
+			_freeBatches = freeBatches;
+			_acceptedOut = acceptedOut;
+			_rejectedOut = rejectedOut;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			while (true) {
+				Batch batch = _evaluated.take().get();
+				if (batch == Batch.END) {
+					break;
+				}
+
+				for (int record = 0; record < batch._records; record++) {
+					int start = batch._starts[record];
+					int length = batch._ends[record] - start;
+
+					if (batch._accepted[record]) {
+						_accepted++;
+						write(_acceptedOut, _acceptedBuffer, batch._data, start, length);
+					} else {
+						_rejected++;
+						if (!batch._parsed[record]) {
+							_malformed++;
+						}
+						write(_rejectedOut, _rejectedBuffer, batch._data, start, length);
+					}
+				}
+
+				_freeBatches.put(batch);
+			}
+
+			flush(_acceptedOut, _acceptedBuffer);
+			flush(_rejectedOut, _rejectedBuffer);
+			return null;
+		}
+
+		ValidationSummary summary() {
+			return new ValidationSummary(_accepted, _rejected, _malformed);
+		}
+
+		private static void write(FileChannel out, ByteBuffer buffer, byte[] data, int start, int length)
+				throws IOException {
+			while (length > 0) {
+				if (!buffer.hasRemaining()) {
+					flush(out, buffer);
+				}
+
+				int chunk = Math.min(length, buffer.remaining());
+				buffer.put(data, start, chunk);
+				start += chunk;
+				length -= chunk;
+			}
+		}
+
+		private static void flush(FileChannel out, ByteBuffer buffer) throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				out.write(buffer);
+			}
+			buffer.clear();
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package com.illyum.specification.pipeline;
+
+/**
+ * Record counts of a validated loan file
+ */
+public class ValidationSummary {
+	private final long _accepted;
+	private final long _rejected;
+	private final long _malformed;
+
+	public ValidationSummary(long accepted, long rejected, long malformed) {
+		_accepted = accepted;
+		_rejected = rejected;
+		_malformed = malformed;
+	}
+
+	public long getRecords() {
+		return _accepted + _rejected;
+	}
+
+	public long getAccepted() {
+		return _accepted;
+	}
+
+	/**
+	 * @return the rejected records, including the malformed ones
+	 */
+	public long getRejected() {
+		return _rejected;
+	}
+
+	/**
+	 * @return the records whose amount could not be parsed
+	 */
+	public long getMalformed() {
+		return _malformed;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"%d records, %d accepted, %d rejected (%d malformed)",
+				getRecords(), _accepted, _rejected, _malformed
+		);
+	}
+}
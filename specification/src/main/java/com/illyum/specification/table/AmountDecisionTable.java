@@ -0,0 +1,171 @@
+package com.illyum.specification.table;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+import com.illyum.specification.AbstractSpecification;
+import com.illyum.specification.AndSpecification;
+import com.illyum.specification.Specification;
+import com.illyum.specification.example.Loan;
+import com.illyum.specification.loan.LoanMaxAmountSpecification;
+import com.illyum.specification.loan.LoanMinAmountSpecification;
+
+/**
+ * A specification precomputed from a tree that only depends on the loan
+ * amount.
+ *
+ * The amount domain is split at the breakpoints of the tree's leaves into
+ * intervals where the answer cannot change; the original tree is sampled once
+ * per interval, so isSatisfiedBy is reduced to a binary search over a handful
+ * of interval starts no matter how deep the original tree was.
+ *
+ * A verified table also keeps the original tree and cross-checks every answer
+ * against it, which is meant for tests and canary deployments rather than for
+ * the hot path
+ */
+public class AmountDecisionTable extends AbstractSpecification {
+	// sorted starts of the intervals, the first one is always Integer.MIN_VALUE
+	private final int[] _starts;
+	private final boolean[] _values;
+	private final boolean _nonLoanValue;
+
+	// only set in verification mode
+	private final Specification _original;
+
+	private AmountDecisionTable(
+			int[] starts,
+			boolean[] values,
+			boolean nonLoanValue,
+			Specification original
+	) {
+		_starts = starts;
+		_values = values;
+		_nonLoanValue = nonLoanValue;
+		_original = original;
+	}
+
+	/**
+	 * @throws IllegalArgumentException
+	 *           if the specification depends on something else than the loan
+	 *           amount
+	 */
+	public static AmountDecisionTable compile(Specification specification) {
+		return compile(specification, false);
+	}
+
+	/**
+	 * Compiles the specification checking the table against the original tree
+	 * around every breakpoint, the returned table keeps cross-checking each
+	 * answer against the original tree
+	 *
+	 * @throws IllegalStateException
+	 *           if the table and the original tree disagree
+	 */
+	public static AmountDecisionTable compileVerified(Specification specification) {
+		AmountDecisionTable table = compile(specification, true);
+
+		for (int start : table._starts) {
+			table.isSatisfiedBy(new Loan(start));
+			if (start != Integer.MIN_VALUE) {
+				table.isSatisfiedBy(new Loan(start - 1));
+			}
+			if (start != Integer.MAX_VALUE) {
+				table.isSatisfiedBy(new Loan(start + 1));
+			}
+		}
+		table.isSatisfiedBy(new Loan(Integer.MAX_VALUE));
+
+		return table;
+	}
+
+	private static AmountDecisionTable compile(Specification specification, boolean verify) {
+		TreeSet<Integer> breakpoints = new TreeSet<Integer>();
+		breakpoints.add(Integer.MIN_VALUE);
+		collectBreakpoints(specification, breakpoints);
+
+		int[] starts = new int[breakpoints.size()];
+		boolean[] values = new boolean[breakpoints.size()];
+		int intervals = 0;
+
+		for (int start : breakpoints) {
+			boolean value = specification.isSatisfiedBy(new Loan(start));
+
+			// adjacent intervals with the same answer are merged
+			if (intervals > 0 && values[intervals - 1] == value) {
+				continue;
+			}
+
+			starts[intervals] = start;
+			values[intervals] = value;
+			intervals++;
+		}
+
+		return new AmountDecisionTable(
+				Arrays.copyOf(starts, intervals),
+				Arrays.copyOf(values, intervals),
+				specification.isSatisfiedBy(new Object()),
+				verify ? specification : null
+		);
+	}
+
+	/**
+	 * Adds the amounts at which the answer of the specification may change
+	 */
+	private static void collectBreakpoints(Specification specification, TreeSet<Integer> breakpoints) {
+		if (specification instanceof AndSpecification) {
+			AndSpecification and = (AndSpecification) specification;
+			collectBreakpoints(and.getOne(), breakpoints);
+			collectBreakpoints(and.getOther(), breakpoints);
+		} else if (specification instanceof LoanMaxAmountSpecification) {
+			// amount < max
+			breakpoints.add(((LoanMaxAmountSpecification) specification).getMaxAmount());
+		} else if (specification instanceof LoanMinAmountSpecification) {
+			// min < amount
+			int minAmount = ((LoanMinAmountSpecification) specification).getMinAmount();
+			if (minAmount != Integer.MAX_VALUE) {
+				breakpoints.add(minAmount + 1);
+			}
+		} else if (specification instanceof AmountDecisionTable) {
+			for (int start : ((AmountDecisionTable) specification)._starts) {
+				breakpoints.add(start);
+			}
+		} else {
+			throw new IllegalArgumentException(
+					"Only loan amount specifications can be compiled: " + specification.getClass().getName()
+			);
+		}
+	}
+
+	/**
+	 * @return the number of intervals of the table
+	 */
+	public int getIntervalCount() {
+		return _starts.length;
+	}
+
+	public boolean isSatisfiedBy(int amount) {
+		int interval = Arrays.binarySearch(_starts, amount);
+		if (interval < 0) {
+			// the interval that contains the amount starts right before the
+			// insertion point
+			interval = -interval - 2;
+		}
+
+		return _values[interval];
+	}
+
+	@Override
+	public boolean isSatisfiedBy(Object candidate) {
+		boolean satisfied = candidate instanceof Loan
+				? isSatisfiedBy(((Loan) candidate).getAmount())
+				: _nonLoanValue;
+
+		if (_original != null && _original.isSatisfiedBy(candidate) != satisfied) {
+			throw new IllegalStateException(
+					"The decision table disagrees with the original specification for " + candidate
+			);
+		}
+
+		return satisfied;
+	}
+}
@@ -0,0 +1,153 @@
+package com.illyum.specification.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.illyum.specification.example.Loan;
+import com.illyum.specification.loan.SpecificationRepository;
+
+public class AsyncSpecificationTest {
+	private final ExecutorService _executor = Executors.newCachedThreadPool();
+
+	@After
+	public void shutdown() {
+		_executor.shutdownNow();
+	}
+
+	@Test
+	public void andShortCircuits() throws Exception {
+		// arrange
+		CountingLookup lookup = new CountingLookup();
+		AsyncSpecification specification = new AsyncSpecificationAdapter(
+				new SpecificationRepository().getSpecificationForLoan()
+		).and(batching(lookup, 1, 10));
+
+		// act
+		boolean satisfied = specification.isSatisfiedBy(new Loan(10)).get();
+
+		// assert
+		assertFalse(satisfied);
+		assertEquals(0, lookup._calls.get());
+	}
+
+	@Test
+	public void orShortCircuits() throws Exception {
+		// arrange
+		CountingLookup lookup = new CountingLookup();
+		AsyncSpecification specification = new AsyncSpecificationAdapter(
+				new SpecificationRepository().getSpecificationForLoan(),
+				_executor
+		).or(batching(lookup, 1, 10));
+
+		// act
+		boolean satisfied = specification.isSatisfiedBy(new Loan(75)).get();
+
+		// assert
+		assertTrue(satisfied);
+		assertEquals(0, lookup._calls.get());
+	}
+
+	@Test
+	public void concurrentCandidatesAreBatched() throws Exception {
+		// arrange
+		final CountingLookup lookup = new CountingLookup();
+		final AsyncSpecification specification = batching(lookup, 100, 60000);
+		final CountDownLatch start = new CountDownLatch(1);
+
+		List<Future<List<CompletableFuture<Boolean>>>> submitters = new ArrayList<Future<List<CompletableFuture<Boolean>>>>();
+		for (int thread = 0; thread < 10; thread++) {
+			final int firstAmount = thread * 100;
+			submitters.add(_executor.submit(() -> {
+				start.await();
+
+				List<CompletableFuture<Boolean>> results = new ArrayList<CompletableFuture<Boolean>>();
+				for (int amount = firstAmount; amount < firstAmount + 100; amount++) {
+					results.add(specification.isSatisfiedBy(new Loan(amount)));
+				}
+				return results;
+			}));
+		}
+
+		// act
+		start.countDown();
+
+		// assert
+		for (int thread = 0; thread < 10; thread++) {
+			List<CompletableFuture<Boolean>> results = submitters.get(thread).get(5, TimeUnit.SECONDS);
+			for (int i = 0; i < 100; i++) {
+				int amount = thread * 100 + i;
+				assertEquals(amount % 2 == 0, results.get(i).get(5, TimeUnit.SECONDS));
+			}
+		}
+		assertEquals(10, lookup._calls.get());
+	}
+
+	@Test
+	public void incompleteBatchesAreFlushedAfterTheMaxDelay() throws Exception {
+		// arrange
+		CountingLookup lookup = new CountingLookup();
+		AsyncSpecification specification = batching(lookup, 100, 10);
+
+		// act
+		CompletableFuture<Boolean> result = specification.isSatisfiedBy(new Loan(2));
+
+		// assert
+		assertTrue(result.get(5, TimeUnit.SECONDS));
+		assertEquals(1, lookup._calls.get());
+	}
+
+	@Test(expected = ExecutionException.class)
+	public void lookupFailuresFailTheCandidates() throws Exception {
+		// arrange
+		AsyncSpecification specification = new BatchingAsyncSpecification
+				.Builder(candidates -> {
+					throw new IllegalStateException("bureau unavailable");
+				}, _executor)
+				.build();
+
+		// act
+		specification.isSatisfiedBy(new Loan(2)).get(5, TimeUnit.SECONDS);
+	}
+
+	private AsyncSpecification batching(CountingLookup lookup, int maxBatchSize, long maxDelayMillis) {
+		return new BatchingAsyncSpecification
+				.Builder(lookup, _executor)
+				.maxBatchSize(maxBatchSize)
+				.maxDelay(maxDelayMillis, TimeUnit.MILLISECONDS)
+				.build();
+	}
+
+	/**
+	 * Stub of a remote lookup that accepts the loans with even amounts
+	 */
+	private static class CountingLookup implements BatchingAsyncSpecification.BatchLookup {
+		private final AtomicInteger _calls = new AtomicInteger();
+
+		@Override
+		public List<Boolean> lookup(List<Object> candidates) {
+			_calls.incrementAndGet();
+
+			List<Boolean> results = new ArrayList<Boolean>(candidates.size());
+			for (Object candidate : candidates) {
+				results.add(((Loan) candidate).getAmount() % 2 == 0);
+			}
+
+			return results;
+		}
+	}
+}
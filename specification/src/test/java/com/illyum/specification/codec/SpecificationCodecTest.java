@@ -0,0 +1,171 @@
+package com.illyum.specification.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.illyum.specification.AbstractSpecification;
+import com.illyum.specification.AndSpecification;
+import com.illyum.specification.Specification;
+import com.illyum.specification.example.Loan;
+import com.illyum.specification.loan.LoanMaxAmountSpecification;
+import com.illyum.specification.loan.LoanMinAmountSpecification;
+import com.illyum.specification.loan.SpecificationRepository;
+import com.illyum.specification.network.RuleNetwork;
+
+public class SpecificationCodecTest {
+
+	@Test
+	public void decodedRulesAnswerLikeTheOriginalOnes() {
+		// arrange
+		Map<String, Specification> rules = new LinkedHashMap<String, Specification>();
+		rules.put("default", new SpecificationRepository().getSpecificationForLoan());
+		rules.put("negative", new LoanMaxAmountSpecification(-5).and(new LoanMinAmountSpecification(Integer.MIN_VALUE)));
+		rules.put("wide", new LoanMaxAmountSpecification(Integer.MAX_VALUE));
+
+		// act
+		Map<String, Specification> decoded = SpecificationCodec.decode(ByteBuffer.wrap(SpecificationCodec.encode(rules)));
+
+		// assert
+		assertEquals(rules.keySet().toString(), decoded.keySet().toString());
+		for (String id : rules.keySet()) {
+			for (int amount = -10; amount < 200; amount++) {
+				Loan loan = new Loan(amount);
+				assertEquals(rules.get(id).isSatisfiedBy(loan), decoded.get(id).isSatisfiedBy(loan));
+			}
+		}
+	}
+
+	@Test
+	public void identicalLeavesAreShared() {
+		// arrange
+		Map<String, Specification> rules = new LinkedHashMap<String, Specification>();
+		for (int i = 0; i < 5000; i++) {
+			rules.put("rule-" + i, new LoanMaxAmountSpecification(100 + i % 50)
+					.and(new LoanMinAmountSpecification(50)));
+		}
+
+		// act
+		byte[] encoded = SpecificationCodec.encode(rules);
+		Map<String, Specification> decoded = SpecificationCodec.decode(ByteBuffer.wrap(encoded));
+		RuleNetwork network = SpecificationCodec.decodeNetwork(ByteBuffer.wrap(encoded));
+
+		// assert
+		assertSame(
+				((AndSpecification) decoded.get("rule-0")).getOther(),
+				((AndSpecification) decoded.get("rule-1")).getOther()
+		);
+		assertEquals(5000, network.getRuleCount());
+		assertEquals(51, network.getConditionCount());
+		assertTrue(encoded.length < 5000 * 16);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unsupportedSpecificationsAreRejected() {
+		// arrange
+		Map<String, Specification> rules = new LinkedHashMap<String, Specification>();
+		rules.put("custom", new AbstractSpecification() {
+			@Override
+			public boolean isSatisfiedBy(Object candidate) {
+				return true;
+			}
+		});
+
+		// act
+		SpecificationCodec.encode(rules);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void otherVersionsAreRejected() {
+		// arrange
+		Map<String, Specification> rules = new LinkedHashMap<String, Specification>();
+		rules.put("default", new SpecificationRepository().getSpecificationForLoan());
+		byte[] encoded = SpecificationCodec.encode(rules);
+		encoded[5] = 2;
+
+		// act
+		SpecificationCodec.decode(ByteBuffer.wrap(encoded));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void truncatedRuleSetsAreRejected() {
+		// arrange
+		Map<String, Specification> rules = new LinkedHashMap<String, Specification>();
+		rules.put("default", new SpecificationRepository().getSpecificationForLoan());
+		byte[] encoded = SpecificationCodec.encode(rules);
+
+		// act
+		SpecificationCodec.decode(ByteBuffer.wrap(encoded, 0, encoded.length - 1));
+	}
+
+	@Test
+	public void countsPastTheBufferAreRejected() {
+		// arrange: the header of a million rules and nothing else
+		ByteBuffer buffer = ByteBuffer.allocate(9);
+		buffer.putInt(SpecificationCodec.MAGIC);
+		buffer.putShort(SpecificationCodec.VERSION);
+		buffer.put(new byte[] { (byte) 0xc0, (byte) 0x84, 0x3d });
+		buffer.flip();
+
+		// act
+		try {
+			SpecificationCodec.decode(buffer);
+			fail();
+		} catch (IllegalArgumentException e) {
+
+			// assert
+			assertEquals("Invalid rule count: 1000000", e.getMessage());
+		}
+	}
+
+	@Test
+	public void deeplyNestedRulesAreRejected() {
+		// arrange: a rule of 200000 AND tags
+		ByteBuffer buffer = ByteBuffer.allocate(8 + 200000);
+		buffer.putInt(SpecificationCodec.MAGIC);
+		buffer.putShort(SpecificationCodec.VERSION);
+		buffer.put((byte) 1);
+		buffer.put((byte) 0);
+		while (buffer.hasRemaining()) {
+			buffer.put((byte) 1);
+		}
+		buffer.flip();
+
+		// act
+		try {
+			SpecificationCodec.decode(buffer);
+			fail();
+		} catch (IllegalArgumentException e) {
+
+			// assert
+			assertEquals("Rule nested too deeply", e.getMessage());
+		}
+	}
+
+	@Test
+	public void varintsPast32BitsAreRejected() {
+		// arrange: a max amount leaf whose fifth varint byte has more than 4 bits
+		ByteBuffer buffer = ByteBuffer.allocate(14);
+		buffer.putInt(SpecificationCodec.MAGIC);
+		buffer.putShort(SpecificationCodec.VERSION);
+		buffer.put(new byte[] { 1, 0, 2, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x7f });
+		buffer.flip();
+
+		// act
+		try {
+			SpecificationCodec.decode(buffer);
+			fail();
+		} catch (IllegalArgumentException e) {
+
+			// assert
+			assertEquals("Malformed varint", e.getMessage());
+		}
+	}
+}
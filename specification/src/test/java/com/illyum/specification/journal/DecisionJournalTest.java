@@ -0,0 +1,137 @@
+package com.illyum.specification.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.illyum.specification.Specification;
+import com.illyum.specification.example.Loan;
+import com.illyum.specification.loan.SpecificationRepository;
+
+public class DecisionJournalTest {
+
+	@Rule
+	public TemporaryFolder _folder = new TemporaryFolder();
+
+	@Test
+	public void decisionsAreReplayedInOrder() throws Exception {
+		// arrange
+		Path directory = _folder.getRoot().toPath();
+		Specification specification = new SpecificationRepository().getSpecificationForLoan();
+
+		// act
+		try (DecisionJournal journal = new DecisionJournal(directory, 1024, 64)) {
+			journal.decide(1, 7, specification, new Loan(75));
+			journal.decide(2, 7, specification, new Loan(10));
+			journal.sync();
+		}
+
+		// assert
+		final List<String> decisions = new ArrayList<String>();
+		long count = DecisionJournalReader.replay(directory, (loanId, timestamp, amount, ruleId, accepted) -> {
+			assertTrue(timestamp > 0);
+			decisions.add(loanId + ":" + amount + ":" + ruleId + ":" + accepted);
+		});
+
+		assertEquals(2, count);
+		assertEquals("[1:75:7:true, 2:10:7:false]", decisions.toString());
+	}
+
+	@Test
+	public void segmentsRollWhenFull() throws Exception {
+		// arrange
+		Path directory = _folder.getRoot().toPath();
+
+		// act
+		try (DecisionJournal journal = new DecisionJournal(directory, 100, 16)) {
+			for (int i = 0; i < 1050; i++) {
+				journal.append(i, i, 1, i % 2 == 0);
+			}
+		}
+
+		// assert
+		assertEquals(11, DecisionJournalReader.segments(directory).size());
+
+		final long[] expectedLoanId = { 0 };
+		long count = DecisionJournalReader.replay(directory, (loanId, timestamp, amount, ruleId, accepted) -> {
+			assertEquals(expectedLoanId[0]++, loanId);
+			assertEquals(loanId % 2 == 0, accepted);
+		});
+		assertEquals(1050, count);
+	}
+
+	@Test
+	public void concurrentCallersAreAllJournaled() throws Exception {
+		// arrange
+		Path directory = _folder.getRoot().toPath();
+		final DecisionJournal journal = new DecisionJournal(directory, 4096, 8);
+
+		// act
+		List<Thread> callers = new ArrayList<Thread>();
+		for (int t = 0; t < 4; t++) {
+			final int caller = t;
+			Thread thread = new Thread(() -> {
+				try {
+					for (int i = 0; i < 2500; i++) {
+						journal.append(caller * 10000L + i, i, caller, true);
+					}
+				} catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			callers.add(thread);
+			thread.start();
+		}
+		for (Thread thread : callers) {
+			thread.join();
+		}
+		journal.close();
+
+		// assert
+		assertEquals(10000, DecisionJournalReader.replay(directory, (loanId, timestamp, amount, ruleId, accepted) -> {
+		}));
+	}
+
+	@Test
+	public void reopenedJournalsAppendNewSegments() throws Exception {
+		// arrange
+		Path directory = _folder.getRoot().toPath();
+		try (DecisionJournal journal = new DecisionJournal(directory, 10, 4)) {
+			journal.append(1, 1, 1, true);
+		}
+
+		// act
+		try (DecisionJournal journal = new DecisionJournal(directory, 10, 4)) {
+			journal.append(2, 2, 1, false);
+		}
+
+		// assert
+		assertEquals(2, DecisionJournalReader.segments(directory).size());
+		assertEquals(2, DecisionJournalReader.replay(directory, (loanId, timestamp, amount, ruleId, accepted) -> {
+		}));
+	}
+
+	@Test(expected = IOException.class)
+	public void closedJournalsRefuseDecisions() throws Exception {
+		// arrange
+		DecisionJournal journal = new DecisionJournal(_folder.getRoot().toPath(), 10, 4);
+		journal.close();
+
+		// act
+		journal.append(1, 1, 1, true);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void segmentsMustFitAMapping() throws Exception {
+		// act
+		new DecisionJournal(_folder.getRoot().toPath(), Integer.MAX_VALUE / DecisionJournal.RECORD_SIZE + 1, 4);
+	}
+}
@@ -0,0 +1,92 @@
+package com.illyum.specification.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+
+import org.junit.Test;
+
+import com.illyum.specification.Specification;
+import com.illyum.specification.example.Loan;
+import com.illyum.specification.loan.SpecificationRepository;
+
+public class SpecificationMetricsRegistryTest {
+
+	@Test
+	public void everyNodeRecordsItsOutcomes() {
+		// arrange
+		SpecificationMetricsRegistry registry = new SpecificationMetricsRegistry();
+		Specification specification = registry.instrument(
+				"loan",
+				new SpecificationRepository().getSpecificationForLoan()
+		);
+
+		// act
+		specification.isSatisfiedBy(new Loan(75));
+		specification.isSatisfiedBy(new Loan(SpecificationRepository.MAX_AMOUNT + 1));
+		specification.isSatisfiedBy(new Loan(SpecificationRepository.MIN_AMOUNT - 1));
+
+		// assert
+		SpecificationMetrics root = registry.getMetrics("loan");
+		assertEquals(3, root.getInvocations());
+		assertEquals(1, root.getPassed());
+		assertEquals(2, root.getFailed());
+
+		// the and short-circuits when the max amount is exceeded
+		assertEquals(3, registry.getMetrics("loan.one").getInvocations());
+		assertEquals(2, registry.getMetrics("loan.other").getInvocations());
+
+		long histogramTotal = 0;
+		for (long count : root.getLatencyHistogram()) {
+			histogramTotal += count;
+		}
+		assertEquals(3, histogramTotal);
+	}
+
+	@Test
+	public void resetClearsTheCounters() {
+		// arrange
+		SpecificationMetricsRegistry registry = new SpecificationMetricsRegistry();
+		Specification specification = registry.instrument(
+				"loan",
+				new SpecificationRepository().getSpecificationForLoan()
+		);
+		specification.isSatisfiedBy(new Loan(75));
+
+		// act
+		registry.resetAll();
+
+		// assert
+		assertEquals(0, registry.getMetrics("loan").getInvocations());
+		assertEquals(0, registry.getMetrics("loan").getTotalNanos());
+	}
+
+	@Test
+	public void metricsAreExposedThroughJmx() throws Exception {
+		// arrange
+		MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		SpecificationMetricsRegistry registry = new SpecificationMetricsRegistry(mBeanServer);
+		Specification specification = registry.instrument(
+				"jmx-loan",
+				new SpecificationRepository().getSpecificationForLoan()
+		);
+
+		// act
+		specification.isSatisfiedBy(new Loan(75));
+
+		// assert
+		Object passed = mBeanServer.getAttribute(
+				SpecificationMetricsRegistry.objectName("jmx-loan"),
+				"Passed"
+		);
+		assertEquals(1L, passed);
+
+		registry.close();
+		assertFalse(mBeanServer.isRegistered(SpecificationMetricsRegistry.objectName("jmx-loan")));
+		assertTrue(registry.getAllMetrics().isEmpty());
+	}
+}
@@ -0,0 +1,105 @@
+package com.illyum.specification.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.illyum.specification.AbstractSpecification;
+import com.illyum.specification.example.Loan;
+import com.illyum.specification.loan.LoanMaxAmountSpecification;
+import com.illyum.specification.loan.LoanMinAmountSpecification;
+
+public class RuleNetworkTest {
+
+	@Test
+	public void evaluateReturnsTheSatisfiedRules() {
+		// arrange
+		RuleNetwork network = new RuleNetwork.Builder()
+				.rule("small", new LoanMaxAmountSpecification(100).and(new LoanMinAmountSpecification(50)))
+				.rule("medium", new LoanMaxAmountSpecification(500).and(new LoanMinAmountSpecification(50)))
+				.rule("large", new LoanMaxAmountSpecification(1000).and(new LoanMinAmountSpecification(400)))
+				.build();
+
+		// act
+		Set<String> satisfied = network.evaluate(new Loan(99));
+
+		// assert
+		assertEquals(new LinkedHashSet<String>(Arrays.asList("small", "medium")), satisfied);
+		assertTrue(network.evaluate(new Object()).isEmpty());
+	}
+
+	@Test
+	public void identicalConditionsAreShared() {
+		// arrange
+		RuleNetwork.Builder builder = new RuleNetwork.Builder();
+		for (int i = 0; i < 1000; i++) {
+			builder.rule("rule-" + i, new LoanMaxAmountSpecification(100 + i % 10)
+					.and(new LoanMinAmountSpecification(50)));
+		}
+
+		// act
+		RuleNetwork network = builder.build();
+
+		// assert
+		assertEquals(1000, network.getRuleCount());
+		assertEquals(11, network.getConditionCount());
+	}
+
+	@Test
+	public void eachConditionIsEvaluatedOncePerCandidate() {
+		// arrange
+		CountingSpecification shared = new CountingSpecification();
+		RuleNetwork network = new RuleNetwork.Builder()
+				.rule("one", shared.and(new LoanMaxAmountSpecification(100)))
+				.rule("other", shared.and(new LoanMinAmountSpecification(50)))
+				.build();
+
+		// act
+		Set<String> satisfied = network.evaluate(new Loan(75));
+
+		// assert
+		assertEquals(2, satisfied.size());
+		assertEquals(1, shared._evaluations);
+	}
+
+	@Test
+	public void conditionsOfFailedRulesAreNotEvaluated() {
+		// arrange
+		CountingSpecification counting = new CountingSpecification();
+		RuleNetwork network = new RuleNetwork.Builder()
+				.rule("one", new LoanMaxAmountSpecification(10).and(counting))
+				.build();
+
+		// act
+		Set<String> satisfied = network.evaluate(new Loan(75));
+
+		// assert
+		assertTrue(satisfied.isEmpty());
+		assertEquals(0, counting._evaluations);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void duplicatedRuleIdsAreRejected() {
+		// arrange
+		RuleNetwork.Builder builder = new RuleNetwork.Builder()
+				.rule("one", new LoanMaxAmountSpecification(100));
+
+		// act
+		builder.rule("one", new LoanMinAmountSpecification(50));
+	}
+
+	private static class CountingSpecification extends AbstractSpecification {
+		private int _evaluations;
+
+		@Override
+		public boolean isSatisfiedBy(Object candidate) {
+			_evaluations++;
+			return true;
+		}
+	}
+}
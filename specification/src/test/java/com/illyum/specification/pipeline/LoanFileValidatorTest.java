@@ -0,0 +1,109 @@
+package com.illyum.specification.pipeline;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.illyum.specification.loan.SpecificationRepository;
+
+public class LoanFileValidatorTest {
+
+	@Rule
+	public TemporaryFolder _folder = new TemporaryFolder();
+
+	@Test
+	public void recordsAreSplitBetweenAcceptedAndRejected() throws Exception {
+		// arrange
+		Path input = write("1,99\n2,10\r\n\n3,abc\n4,75\n5,1000");
+		Path accepted = _folder.getRoot().toPath().resolve("accepted.csv");
+		Path rejected = _folder.getRoot().toPath().resolve("rejected.csv");
+
+		LoanFileValidator validator = new LoanFileValidator
+				.Builder(new SpecificationRepository().getSpecificationForLoan())
+				.amountColumn(1)
+				.build();
+
+		// act
+		ValidationSummary summary = validator.validate(input, accepted, rejected);
+
+		// assert
+		assertEquals(5, summary.getRecords());
+		assertEquals(2, summary.getAccepted());
+		assertEquals(3, summary.getRejected());
+		assertEquals(1, summary.getMalformed());
+		assertEquals(Arrays.asList("1,99", "4,75"), read(accepted));
+		assertEquals(Arrays.asList("2,10", "3,abc", "5,1000"), read(rejected));
+	}
+
+	@Test
+	public void smallBatchesKeepTheInputOrder() throws Exception {
+		// arrange
+		Path input = _folder.newFile("loans.csv").toPath();
+		try (BufferedWriter writer = Files.newBufferedWriter(input, StandardCharsets.US_ASCII)) {
+			for (int i = 0; i < 100000; i++) {
+				writer.write(i % 200 + ",loan-" + i + "\n");
+			}
+		}
+		Path accepted = _folder.getRoot().toPath().resolve("accepted.csv");
+		Path rejected = _folder.getRoot().toPath().resolve("rejected.csv");
+
+		// tiny batches force records to be carried over between batches
+		LoanFileValidator validator = new LoanFileValidator
+				.Builder(new SpecificationRepository().getSpecificationForLoan())
+				.batchRecords(7)
+				.batchBytes(50)
+				.parallelism(4)
+				.batchesInFlight(3)
+				.build();
+
+		// act
+		ValidationSummary summary = validator.validate(input, accepted, rejected);
+
+		// assert
+		assertEquals(100000, summary.getRecords());
+		assertEquals(100000 / 200 * 49, summary.getAccepted());
+
+		List<String> acceptedLines = read(accepted);
+		assertEquals("51,loan-51", acceptedLines.get(0));
+		assertEquals("52,loan-52", acceptedLines.get(1));
+		assertEquals("99,loan-99899", acceptedLines.get(acceptedLines.size() - 1));
+	}
+
+	@Test(expected = IOException.class)
+	public void recordsLongerThanABatchAreRefused() throws Exception {
+		// arrange
+		Path input = write("1,99\n2,99999999999999999999999999\n");
+		LoanFileValidator validator = new LoanFileValidator
+				.Builder(new SpecificationRepository().getSpecificationForLoan())
+				.amountColumn(1)
+				.batchBytes(16)
+				.build();
+
+		// act
+		validator.validate(
+				input,
+				_folder.getRoot().toPath().resolve("accepted.csv"),
+				_folder.getRoot().toPath().resolve("rejected.csv")
+		);
+	}
+
+	private Path write(String content) throws IOException {
+		Path path = _folder.newFile().toPath();
+		Files.write(path, content.getBytes(StandardCharsets.US_ASCII));
+		return path;
+	}
+
+	private static List<String> read(Path path) throws IOException {
+		return Files.readAllLines(path, StandardCharsets.US_ASCII);
+	}
+}
@@ -0,0 +1,82 @@
+package com.illyum.specification.table;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+import com.illyum.specification.AbstractSpecification;
+import com.illyum.specification.Specification;
+import com.illyum.specification.example.Loan;
+import com.illyum.specification.loan.LoanMaxAmountSpecification;
+import com.illyum.specification.loan.LoanMinAmountSpecification;
+import com.illyum.specification.loan.SpecificationRepository;
+
+public class AmountDecisionTableTest {
+
+	@Test
+	public void answersLikeTheOriginalSpecification() {
+		// arrange
+		Specification original = new SpecificationRepository().getSpecificationForLoan();
+
+		// act
+		AmountDecisionTable table = AmountDecisionTable.compile(original);
+
+		// assert
+		for (int amount = -10; amount < 200; amount++) {
+			Loan loan = new Loan(amount);
+			assertEquals("amount " + amount, original.isSatisfiedBy(loan), table.isSatisfiedBy(loan));
+		}
+		assertFalse(table.isSatisfiedBy(new Loan(Integer.MIN_VALUE)));
+		assertFalse(table.isSatisfiedBy(new Loan(Integer.MAX_VALUE)));
+		assertFalse(table.isSatisfiedBy(new Object()));
+	}
+
+	@Test
+	public void redundantConditionsCollapseIntoFewIntervals() {
+		// arrange
+		Specification original = new LoanMaxAmountSpecification(100);
+		for (int i = 0; i < 64; i++) {
+			original = original
+					.and(new LoanMaxAmountSpecification(100 + i))
+					.and(new LoanMinAmountSpecification(50 - i));
+		}
+
+		// act
+		AmountDecisionTable table = AmountDecisionTable.compileVerified(original);
+
+		// assert
+		assertEquals(3, table.getIntervalCount());
+		for (int amount = -100; amount < 300; amount++) {
+			assertEquals(original.isSatisfiedBy(new Loan(amount)), table.isSatisfiedBy(amount));
+		}
+	}
+
+	@Test
+	public void extremeThresholdsAreHandled() {
+		// arrange
+		Specification original = new LoanMinAmountSpecification(Integer.MAX_VALUE)
+				.and(new LoanMaxAmountSpecification(Integer.MIN_VALUE));
+
+		// act
+		AmountDecisionTable table = AmountDecisionTable.compileVerified(original);
+
+		// assert
+		assertEquals(1, table.getIntervalCount());
+		assertFalse(table.isSatisfiedBy(new Loan(0)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void specificationsBeyondTheAmountAreRejected() {
+		// arrange
+		Specification original = new LoanMaxAmountSpecification(100).and(new AbstractSpecification() {
+			@Override
+			public boolean isSatisfiedBy(Object candidate) {
+				return true;
+			}
+		});
+
+		// act
+		AmountDecisionTable.compile(original);
+	}
+}